@@ -0,0 +1,55 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * dominantColors 컬럼 JSON 인코딩(분석 저장 시)·디코딩(결과 화면 조회 시)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DominantColorsCodecBenchmark {
+
+    private DominantColorsCodec codec;
+    private List<DominantColor> colors;
+    private String json;
+    private String legacyJson;
+
+    @Setup
+    public void setUp() {
+        codec = new DominantColorsCodec(new ObjectMapper());
+        colors = List.of(
+                new DominantColor("#E0AC8A", 0.41234f),
+                new DominantColor("#6B4E3D", 0.23111f),
+                new DominantColor("#46596F", 0.18765f),
+                new DominantColor("#C89478", 0.10432f),
+                new DominantColor("#2B2523", 0.06458f));
+        json = codec.encode(colors);
+        legacyJson = "[\"#E0AC8A\",\"#6B4E3D\",\"#46596F\",\"#C89478\",\"#2B2523\"]";
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(colors);
+    }
+
+    @Benchmark
+    public List<DominantColor> decode() {
+        return codec.decode(json);
+    }
+
+    @Benchmark
+    public List<DominantColor> decodeLegacy() {
+        return codec.decode(legacyJson);
+    }
+}
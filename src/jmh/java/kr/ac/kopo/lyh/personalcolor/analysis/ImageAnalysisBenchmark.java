@@ -0,0 +1,64 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미지 1장 분석 (ColorAnalysisService.analyze 의 캐시 미적중 경로)
+ * 디코딩·샘플링 → 피부톤 판정 → 대표 색상 추출 → dominantColors JSON 인코딩
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImageAnalysisBenchmark {
+
+    // 가로x세로 (휴대폰 사진 12MP, 웹 업로드 축소본)
+    @Param({"3000x4000", "1200x1600"})
+    public String resolution;
+
+    private Path directory;
+    private Path image;
+    private LocalImageAnalyzer analyzer;
+    private DominantColorExtractor extractor;
+    private DominantColorsCodec codec;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] size = resolution.split("x");
+        directory = Files.createTempDirectory("analysis-bench");
+        // 테스트와 같은 합성 인물 사진 (src/test 의 SamplePortraits, jmh.includeTests)
+        image = SamplePortraits.write(directory.resolve("portrait.jpg"), Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+
+        // application.properties 기본값과 같은 설정
+        extractor = new DominantColorExtractor(5, 65536, 12, 0);
+        analyzer = new LocalImageAnalyzer(new PixelSampler(262144), new SkinToneAnalyzer(400), extractor);
+        codec = new DominantColorsCodec(new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        extractor.shutdown();
+        Files.deleteIfExists(image);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String analyze() throws IOException {
+        ImageAnalysis result = analyzer.analyze(image);
+        return codec.encode(result.dominantColors());
+    }
+}
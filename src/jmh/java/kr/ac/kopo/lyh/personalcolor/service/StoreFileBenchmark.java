@@ -0,0 +1,187 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.repository.StoredBlobRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 새 업로드 파일 1개 저장 (형식·크기 검사 + SHA-256 해시 + 샤드 디렉토리 기록)
+ * 메모리에 있는 멀티파트(file-size-threshold 미만과 같은 경로)를 매번 다른 내용으로 저장한다.
+ * DB(stored_blob)는 항상 새 파일로 응답하는 메모리 스텁이라 측정에 포함되지 않는다.
+ * (호출마다 저장 파일을 지우므로 Level.Invocation 사용, 64KB 는 그 오버헤드가 일부 섞인다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreFileBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    public int fileSize;
+
+    private Path uploadDir;
+    private ImageDerivativeService derivativeService;
+    private FileStorageService fileStorageService;
+    private byte[] content;
+    private long sequence;
+    private String storedFileName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("store-bench");
+        // 축소본 생성은 백그라운드 작업이므로 제외
+        derivativeService = new ImageDerivativeService(new SimpleMeterRegistry(), List.of(), 1, 1);
+        fileStorageService = new FileStorageService(uploadDir.toString(), DataSize.ofMegabytes(20),
+                newBlobRepositoryStub(), derivativeService, new NoTransactionManager());
+
+        content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        // JPEG 매직 바이트
+        content[0] = (byte) 0xFF;
+        content[1] = (byte) 0xD8;
+        content[2] = (byte) 0xFF;
+    }
+
+    @Setup(Level.Invocation)
+    public void nextContent() {
+        // 매번 다른 해시가 되도록 끝 8바이트에 순번 기록 (중복 재사용 경로 회피)
+        ByteBuffer.wrap(content, content.length - Long.BYTES, Long.BYTES).putLong(++sequence);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteStored() {
+        fileStorageService.deleteFile(storedFileName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        derivativeService.shutdown();
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public String storeFile() {
+        storedFileName = fileStorageService.storeFile(new InMemoryMultipartFile(content));
+        return storedFileName;
+    }
+
+    /**
+     * findById → 없음, save → 인자 그대로, 갱신 쿼리 → 0건
+     */
+    // 저장소 스텁에는 DB 가 없으므로 트랜잭션 경계만 흉내 낸다
+    private static final class NoTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static StoredBlobRepository newBlobRepositoryStub() {
+        return (StoredBlobRepository) Proxy.newProxyInstance(StoredBlobRepository.class.getClassLoader(),
+                new Class<?>[]{StoredBlobRepository.class}, (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (type == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (type == int.class) {
+                        return 0;
+                    }
+                    if (type == long.class) {
+                        return 0L;
+                    }
+                    if (type == boolean.class) {
+                        return method.getName().equals("equals") && proxy == args[0];
+                    }
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    if (method.getName().equals("toString")) {
+                        return "StoredBlobRepositoryStub";
+                    }
+                    return null;
+                });
+    }
+
+    private record InMemoryMultipartFile(byte[] content) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "photo.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return content.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.write(dest.toPath(), content);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+/**
+ * sRGB(D65) → CIELAB 변환 유틸리티
+ * 픽셀 루프에서 호출되므로 객체를 만들지 않고 전달받은 float 버퍼에 직접 기록한다.
+ */
+public final class CieLab {
+
+    // sRGB 8bit 값 → 선형 RGB 변환 테이블
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+
+    // D65 기준 백색점
+    private static final float XN = 0.95047f;
+    private static final float ZN = 1.08883f;
+
+    private static final float EPSILON = 216f / 24389f;
+    private static final float KAPPA = 24389f / 27f;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double c = i / 255.0;
+            SRGB_TO_LINEAR[i] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+        }
+    }
+
+    private CieLab() {
+    }
+
+    /**
+     * 0xRRGGBB 픽셀을 L*, a*, b* 순서로 out[offset..offset+2]에 기록
+     */
+    public static void rgbToLab(int rgb, float[] out, int offset) {
+        float r = SRGB_TO_LINEAR[(rgb >> 16) & 0xFF];
+        float g = SRGB_TO_LINEAR[(rgb >> 8) & 0xFF];
+        float b = SRGB_TO_LINEAR[rgb & 0xFF];
+
+        float x = (0.4124564f * r + 0.3575761f * g + 0.1804375f * b) / XN;
+        float y = 0.2126729f * r + 0.7151522f * g + 0.0721750f * b;
+        float z = (0.0193339f * r + 0.1191920f * g + 0.9503041f * b) / ZN;
+
+        float fx = f(x);
+        float fy = f(y);
+        float fz = f(z);
+
+        out[offset] = 116f * fy - 16f;
+        out[offset + 1] = 500f * (fx - fy);
+        out[offset + 2] = 200f * (fy - fz);
+    }
+
+    private static float f(float t) {
+        return t > EPSILON ? (float) Math.cbrt(t) : (KAPPA * t + 16f) / 116f;
+    }
+}
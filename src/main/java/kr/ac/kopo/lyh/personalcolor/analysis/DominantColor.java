@@ -0,0 +1,10 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+/**
+ * 대표 색상 하나와 이미지 내 비중
+ *
+ * @param hex    #RRGGBB 형식 색상
+ * @param weight 해당 색상 군집이 차지하는 픽셀 비율 (0.0 ~ 1.0)
+ */
+public record DominantColor(String hex, float weight) {
+}
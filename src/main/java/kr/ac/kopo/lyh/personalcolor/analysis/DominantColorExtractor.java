@@ -0,0 +1,280 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CIELAB 공간 k-means 로 이미지의 대표 색상과 비중을 추출
+ *
+ * - 픽셀 예산(pixel-budget)만큼만 균등 간격으로 샘플링하므로 입력 해상도와 무관하게 지연시간이 제한된다.
+ * - Lab 변환과 군집 할당은 fork-join 으로 코어에 분산된다.
+ * - 초기 중심은 고정 시드 k-means++, 분할 지점은 범위로만 결정되므로 같은 이미지는 항상 같은 결과가 나온다.
+ */
+@Component
+public class DominantColorExtractor {
+
+    public static final int MAX_COLORS = 6;
+
+    private static final long SEED = 0x5EEDL;
+    private static final int SPLIT_THRESHOLD = 8192;
+    // 군집별 누적값: L, a, b, R, G, B, count
+    private static final int STRIDE = 7;
+    // 중심 이동량(ΔE 제곱)이 이보다 작으면 수렴으로 판단
+    private static final float CONVERGENCE = 0.25f;
+
+    private final int colorCount;
+    private final int pixelBudget;
+    private final int maxIterations;
+    private final ForkJoinPool pool;
+
+    public DominantColorExtractor(@Value("${app.analysis.palette.colors:5}") int colorCount,
+                                  @Value("${app.analysis.palette.pixel-budget:65536}") int pixelBudget,
+                                  @Value("${app.analysis.palette.max-iterations:12}") int maxIterations,
+                                  @Value("${app.analysis.palette.parallelism:0}") int parallelism) {
+        if (colorCount < 1 || colorCount > MAX_COLORS) {
+            throw new IllegalArgumentException("app.analysis.palette.colors 값은 1~" + MAX_COLORS + " 사이여야 합니다.");
+        }
+        if (pixelBudget <= 0 || maxIterations <= 0) {
+            throw new IllegalArgumentException("app.analysis.palette 설정 값은 0보다 커야 합니다.");
+        }
+        this.colorCount = colorCount;
+        this.pixelBudget = pixelBudget;
+        this.maxIterations = maxIterations;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public List<DominantColor> extract(SampledImage image) {
+        int[] samples = downsample(image.pixels(), pixelBudget);
+        int n = samples.length;
+        if (n == 0) {
+            return List.of();
+        }
+
+        float[] lab = new float[n * 3];
+        pool.invoke(new LabTask(samples, lab, 0, n));
+
+        int k = Math.min(colorCount, n);
+        float[] centroids = initCentroids(lab, n, k);
+
+        double[] sums = null;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            sums = pool.invoke(new AccumulateTask(samples, lab, centroids, k, 0, n));
+            if (updateCentroids(centroids, sums, k) < CONVERGENCE) {
+                break;
+            }
+        }
+
+        List<DominantColor> palette = new ArrayList<>(k);
+        for (int c = 0; c < k; c++) {
+            double count = sums[c * STRIDE + 6];
+            if (count == 0) {
+                continue;
+            }
+            int r = (int) Math.round(sums[c * STRIDE + 3] / count);
+            int g = (int) Math.round(sums[c * STRIDE + 4] / count);
+            int b = (int) Math.round(sums[c * STRIDE + 5] / count);
+            palette.add(new DominantColor(String.format("#%02X%02X%02X", r, g, b), (float) (count / n)));
+        }
+        palette.sort(Comparator.comparing(DominantColor::weight).reversed());
+        return palette;
+    }
+
+    /**
+     * 픽셀 예산을 넘으면 균등 간격으로 샘플링 (입력 버퍼는 수정하지 않음)
+     */
+    static int[] downsample(int[] pixels, int budget) {
+        int n = pixels.length;
+        if (n <= budget) {
+            return pixels;
+        }
+        int stride = (n + budget - 1) / budget;
+        int[] samples = new int[(n + stride - 1) / stride];
+        for (int i = 0, j = 0; j < samples.length; i += stride, j++) {
+            samples[j] = pixels[i];
+        }
+        return samples;
+    }
+
+    /**
+     * 고정 시드 k-means++ 초기화
+     */
+    private static float[] initCentroids(float[] lab, int n, int k) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        float[] centroids = new float[k * 3];
+        System.arraycopy(lab, random.nextInt(n) * 3, centroids, 0, 3);
+
+        float[] distances = new float[n];
+        for (int i = 0; i < n; i++) {
+            distances[i] = distance(lab, i * 3, centroids, 0);
+        }
+
+        for (int c = 1; c < k; c++) {
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += distances[i];
+            }
+
+            int chosen = n - 1;
+            if (total == 0) {
+                chosen = random.nextInt(n);
+            } else {
+                double target = random.nextDouble() * total;
+                double cumulative = 0;
+                for (int i = 0; i < n; i++) {
+                    cumulative += distances[i];
+                    if (cumulative >= target) {
+                        chosen = i;
+                        break;
+                    }
+                }
+            }
+            System.arraycopy(lab, chosen * 3, centroids, c * 3, 3);
+
+            for (int i = 0; i < n; i++) {
+                distances[i] = Math.min(distances[i], distance(lab, i * 3, centroids, c * 3));
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * 누적값으로 중심을 갱신하고 가장 큰 이동량(제곱)을 반환
+     */
+    private static float updateCentroids(float[] centroids, double[] sums, int k) {
+        float maxShift = 0f;
+        for (int c = 0; c < k; c++) {
+            double count = sums[c * STRIDE + 6];
+            if (count == 0) {
+                continue; // 빈 군집은 이전 중심 유지
+            }
+            float l = (float) (sums[c * STRIDE] / count);
+            float a = (float) (sums[c * STRIDE + 1] / count);
+            float b = (float) (sums[c * STRIDE + 2] / count);
+
+            float dl = centroids[c * 3] - l;
+            float da = centroids[c * 3 + 1] - a;
+            float db = centroids[c * 3 + 2] - b;
+            maxShift = Math.max(maxShift, dl * dl + da * da + db * db);
+
+            centroids[c * 3] = l;
+            centroids[c * 3 + 1] = a;
+            centroids[c * 3 + 2] = b;
+        }
+        return maxShift;
+    }
+
+    private static float distance(float[] lab, int offset, float[] centroids, int centroidOffset) {
+        float dl = lab[offset] - centroids[centroidOffset];
+        float da = lab[offset + 1] - centroids[centroidOffset + 1];
+        float db = lab[offset + 2] - centroids[centroidOffset + 2];
+        return dl * dl + da * da + db * db;
+    }
+
+    private static final class LabTask extends RecursiveAction {
+
+        private final int[] samples;
+        private final float[] lab;
+        private final int start;
+        private final int end;
+
+        LabTask(int[] samples, float[] lab, int start, int end) {
+            this.samples = samples;
+            this.lab = lab;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    CieLab.rgbToLab(samples[i], lab, i * 3);
+                }
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new LabTask(samples, lab, start, mid), new LabTask(samples, lab, mid, end));
+        }
+    }
+
+    /**
+     * 각 픽셀을 가장 가까운 중심에 할당하고 군집별 합계를 구하는 작업
+     * 하위 결과는 항상 왼쪽 → 오른쪽 순서로 합산되어 실행 스레드와 무관하게 결과가 같다.
+     */
+    private static final class AccumulateTask extends RecursiveTask<double[]> {
+
+        private final int[] samples;
+        private final float[] lab;
+        private final float[] centroids;
+        private final int k;
+        private final int start;
+        private final int end;
+
+        AccumulateTask(int[] samples, float[] lab, float[] centroids, int k, int start, int end) {
+            this.samples = samples;
+            this.lab = lab;
+            this.centroids = centroids;
+            this.k = k;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                return accumulate();
+            }
+            int mid = (start + end) >>> 1;
+            AccumulateTask left = new AccumulateTask(samples, lab, centroids, k, start, mid);
+            AccumulateTask right = new AccumulateTask(samples, lab, centroids, k, mid, end);
+            left.fork();
+            double[] rightSums = right.compute();
+            double[] sums = left.join();
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += rightSums[i];
+            }
+            return sums;
+        }
+
+        private double[] accumulate() {
+            double[] sums = new double[k * STRIDE];
+            for (int i = start; i < end; i++) {
+                int offset = i * 3;
+                int nearest = 0;
+                float best = Float.MAX_VALUE;
+                for (int c = 0; c < k; c++) {
+                    float d = distance(lab, offset, centroids, c * 3);
+                    if (d < best) {
+                        best = d;
+                        nearest = c;
+                    }
+                }
+
+                int rgb = samples[i];
+                int base = nearest * STRIDE;
+                sums[base] += lab[offset];
+                sums[base + 1] += lab[offset + 1];
+                sums[base + 2] += lab[offset + 2];
+                sums[base + 3] += (rgb >> 16) & 0xFF;
+                sums[base + 4] += (rgb >> 8) & 0xFF;
+                sums[base + 5] += rgb & 0xFF;
+                sums[base + 6] += 1;
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ColorAnalysis.dominantColors 컬럼(JSON) ↔ 대표 색상 목록 변환
+ * 저장 형식: [{"hex":"#E0AC8A","weight":0.412}, ...] (비중 내림차순)
+ * 이전 형식(["#FFB6C1", ...])도 비중 0으로 읽을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DominantColorsCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(List<DominantColor> colors) {
+        try {
+            return objectMapper.writeValueAsString(colors.stream()
+                    .map(color -> new DominantColor(color.hex(), Math.round(color.weight() * 1000f) / 1000f))
+                    .toList());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("대표 색상 직렬화 실패", e);
+        }
+    }
+
+    public List<DominantColor> decode(String json) {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            List<DominantColor> colors = new ArrayList<>(root.size());
+            for (JsonNode node : root) {
+                if (node.isTextual()) {
+                    colors.add(new DominantColor(node.asText(), 0f));
+                } else {
+                    colors.add(new DominantColor(node.path("hex").asText(), (float) node.path("weight").asDouble()));
+                }
+            }
+            return colors;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("대표 색상 형식이 올바르지 않습니다.", e);
+        }
+    }
+}
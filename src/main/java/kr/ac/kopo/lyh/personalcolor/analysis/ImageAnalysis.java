@@ -0,0 +1,17 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.util.List;
+
+/**
+ * 이미지 분석기 공통 결과
+ *
+ * @param colorType      판정된 퍼스널 컬러
+ * @param confidence     분석 신뢰도 (0.0 ~ 1.0)
+ * @param dominantColors 대표 색상 (비중 내림차순)
+ */
+public record ImageAnalysis(ColorAnalysis.ColorType colorType,
+                            float confidence,
+                            List<DominantColor> dominantColors) {
+}
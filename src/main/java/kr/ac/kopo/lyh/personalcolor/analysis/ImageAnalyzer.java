@@ -0,0 +1,16 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 저장된 이미지 한 장의 퍼스널 컬러 판정
+ *
+ * app.analysis.engine 설정으로 구현을 선택한다.
+ * - local  : LocalImageAnalyzer (서버 내 CIELAB 분석, 기본값)
+ * - remote : AiModelClientService (외부 AI 모델 서버)
+ */
+public interface ImageAnalyzer {
+
+    ImageAnalysis analyze(Path image) throws IOException;
+}
@@ -0,0 +1,33 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 서버 내에서 피부톤(CIELAB)과 대표 색상을 분석하는 기본 분석기
+ */
+@Component
+@ConditionalOnProperty(name = "app.analysis.engine", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LocalImageAnalyzer implements ImageAnalyzer {
+
+    private final PixelSampler pixelSampler;
+    private final SkinToneAnalyzer skinToneAnalyzer;
+    private final DominantColorExtractor dominantColorExtractor;
+
+    @Override
+    public ImageAnalysis analyze(Path image) throws IOException {
+        SampledImage sampled = pixelSampler.sample(image);
+        ToneAnalysisResult result = skinToneAnalyzer.analyze(sampled);
+        log.debug("피부톤 분석: 파일={}, 결과={}, L={}, h={}, C={}, 피부비율={}",
+                image.getFileName(), result.colorType(), result.lightness(), result.hue(), result.chroma(),
+                result.skinRatio());
+        return new ImageAnalysis(result.colorType(), result.confidence(), dominantColorExtractor.extract(sampled));
+    }
+}
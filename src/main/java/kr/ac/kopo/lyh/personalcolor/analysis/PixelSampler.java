@@ -0,0 +1,72 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 저장된 이미지를 디코딩하여 픽셀 버퍼로 변환
+ * 디코더 단계에서 서브샘플링하므로 원본 해상도와 상관없이 픽셀 수가 maxPixels 근처로 제한된다.
+ */
+@Component
+public class PixelSampler {
+
+    private final int maxPixels;
+
+    public PixelSampler(@Value("${app.analysis.max-pixels:262144}") int maxPixels) {
+        if (maxPixels <= 0) {
+            throw new IllegalArgumentException("app.analysis.max-pixels 값은 0보다 커야 합니다.");
+        }
+        this.maxPixels = maxPixels;
+    }
+
+    public SampledImage sample(Path imagePath) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imagePath.toFile())) {
+            if (input == null) {
+                throw new IOException("이미지를 열 수 없습니다: " + imagePath);
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // 디코더가 건너뛴 픽셀은 아예 읽지 않으므로 큰 사진일수록 이득이 크다
+                int step = subsamplingStep(width, height, maxPixels);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                BufferedImage image = reader.read(0, param);
+                int sampledWidth = image.getWidth();
+                int sampledHeight = image.getHeight();
+                int[] pixels = image.getRGB(0, 0, sampledWidth, sampledHeight, null, 0, sampledWidth);
+
+                return new SampledImage(pixels, sampledWidth, sampledHeight, width, height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static int subsamplingStep(int width, int height, int maxPixels) {
+        long total = (long) width * height;
+        if (total <= maxPixels) {
+            return 1;
+        }
+        return (int) Math.ceil(Math.sqrt((double) total / maxPixels));
+    }
+}
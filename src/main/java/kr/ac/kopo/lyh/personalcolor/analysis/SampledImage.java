@@ -0,0 +1,13 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+/**
+ * 디코딩 후 다운샘플링된 이미지 픽셀 (0xRRGGBB, 행 우선)
+ *
+ * @param pixels         샘플링된 픽셀 버퍼
+ * @param width          샘플링 후 너비
+ * @param height         샘플링 후 높이
+ * @param originalWidth  원본 너비
+ * @param originalHeight 원본 높이
+ */
+public record SampledImage(int[] pixels, int width, int height, int originalWidth, int originalHeight) {
+}
@@ -0,0 +1,193 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 피부 픽셀을 추출해 CIELAB 공간에서 웜/쿨과 계절을 판정하는 분석기
+ *
+ * 픽셀 루프는 int[] 입력과 풀에서 빌려 쓰는 float[] 버퍼만 사용하며
+ * 픽셀 단위로 객체를 생성하지 않는다.
+ */
+@Component
+public class SkinToneAnalyzer {
+
+    // 색상각이 이 값 이상이면(노란 기가 강하면) 웜톤
+    static final float WARM_HUE_THRESHOLD = 57f;
+    static final float HUE_SCALE = 8f;
+
+    // 명도/채도 기준값 (계절 판정용)
+    static final float LIGHTNESS_THRESHOLD = 62f;
+    static final float LIGHTNESS_SCALE = 8f;
+    static final float CHROMA_THRESHOLD = 22f;
+    static final float CHROMA_SCALE = 6f;
+
+    private static final float MIN_CONFIDENCE = 0.5f;
+    private static final float MAX_CONFIDENCE = 0.99f;
+
+    private final int minSkinPixels;
+
+    // L*, a*, b* 를 연속으로 담는 작업 버퍼 풀 (최대 픽셀 기준 약 3MB/개)
+    // 스레드별 보관은 요청 스레드 수(가상 스레드면 요청 수)만큼 버퍼가 남으므로, CPU 코어 수만큼만 보관하고 재사용한다
+    private final BlockingQueue<float[]> labBuffers =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    public SkinToneAnalyzer(@Value("${app.analysis.min-skin-pixels:400}") int minSkinPixels) {
+        this.minSkinPixels = minSkinPixels;
+    }
+
+    public ToneAnalysisResult analyze(SampledImage image) {
+        int[] pixels = image.pixels();
+        int total = pixels.length;
+        if (total == 0) {
+            throw new IllegalArgumentException("분석할 픽셀이 없습니다.");
+        }
+
+        float[] lab = borrowLabBuffer(total * 3);
+        try {
+            return analyze(image, lab);
+        } finally {
+            labBuffers.offer(lab);
+        }
+    }
+
+    private ToneAnalysisResult analyze(SampledImage image, float[] lab) {
+        int[] pixels = image.pixels();
+        int total = pixels.length;
+
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            int rgb = pixels[i];
+            if (isSkin(rgb)) {
+                CieLab.rgbToLab(rgb, lab, count * 3);
+                count++;
+            }
+        }
+
+        float skinRatio = (float) count / total;
+        boolean fallback = count < minSkinPixels;
+        if (fallback) {
+            // 피부 영역을 찾지 못한 경우 얼굴이 있을 가능성이 높은 중앙 영역을 사용
+            count = centerRegionToLab(image, lab);
+        }
+
+        // 1차: L* 평균/표준편차
+        float sumL = 0f;
+        for (int i = 0; i < count; i++) {
+            sumL += lab[i * 3];
+        }
+        float meanL = sumL / count;
+
+        float varL = 0f;
+        for (int i = 0; i < count; i++) {
+            float d = lab[i * 3] - meanL;
+            varL += d * d;
+        }
+        float limit = Math.max(2f * (float) Math.sqrt(varL / count), 1f);
+
+        // 2차: 하이라이트/그림자(±2σ 밖)를 제외한 평균
+        float l = 0f;
+        float a = 0f;
+        float b = 0f;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = i * 3;
+            if (Math.abs(lab[offset] - meanL) <= limit) {
+                l += lab[offset];
+                a += lab[offset + 1];
+                b += lab[offset + 2];
+                kept++;
+            }
+        }
+        l /= kept;
+        a /= kept;
+        b /= kept;
+
+        float hue = (float) Math.toDegrees(Math.atan2(b, a));
+        if (hue < 0f) {
+            hue += 360f;
+        }
+        float chroma = (float) Math.sqrt(a * a + b * b);
+
+        return classify(l, hue, chroma, skinRatio, fallback);
+    }
+
+    static ToneAnalysisResult classify(float lightness, float hue, float chroma, float skinRatio, boolean fallback) {
+        float warmth = (hue - WARM_HUE_THRESHOLD) / HUE_SCALE;
+        boolean warm = warmth >= 0f;
+
+        float lightAxis = (lightness - LIGHTNESS_THRESHOLD) / LIGHTNESS_SCALE;
+        float chromaAxis = (chroma - CHROMA_THRESHOLD) / CHROMA_SCALE;
+
+        ColorType colorType;
+        float seasonAxis;
+        if (warm) {
+            // 밝고 맑으면 봄, 깊고 차분하면 가을
+            seasonAxis = lightAxis + chromaAxis;
+            colorType = seasonAxis >= 0f ? ColorType.SPRING_WARM : ColorType.AUTUMN_WARM;
+        } else {
+            // 밝고 부드러우면 여름, 깊거나 선명하면 겨울
+            seasonAxis = lightAxis - chromaAxis;
+            colorType = seasonAxis >= 0f ? ColorType.SUMMER_COOL : ColorType.WINTER_COOL;
+        }
+
+        // 판정 경계에서 멀수록, 피부 영역이 충분할수록 신뢰도가 높다
+        float warmthMargin = Math.min(1f, Math.abs(warmth));
+        float seasonMargin = Math.min(1f, Math.abs(seasonAxis) / 2f);
+        float coverage = fallback ? 0.5f : Math.min(1f, 0.6f + skinRatio * 2f);
+
+        float confidence = MIN_CONFIDENCE
+                + (1f - MIN_CONFIDENCE) * (0.6f * warmthMargin + 0.4f * seasonMargin) * coverage;
+        confidence = Math.max(MIN_CONFIDENCE, Math.min(MAX_CONFIDENCE, confidence));
+
+        return new ToneAnalysisResult(colorType, confidence, lightness, hue, chroma, skinRatio);
+    }
+
+    /**
+     * RGB + YCbCr 복합 규칙 기반 피부색 판정 (정수 연산만 사용)
+     */
+    static boolean isSkin(int rgb) {
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+
+        if (r <= 95 || g <= 40 || b <= 20 || r <= g || r <= b || r - g <= 15) {
+            return false;
+        }
+        if (r - Math.min(g, b) <= 15) {
+            return false;
+        }
+
+        int cb = 128 + ((-43 * r - 85 * g + 128 * b) >> 8);
+        int cr = 128 + ((128 * r - 107 * g - 21 * b) >> 8);
+        return cb >= 77 && cb <= 127 && cr >= 133 && cr <= 173;
+    }
+
+    private int centerRegionToLab(SampledImage image, float[] lab) {
+        int width = image.width();
+        int height = image.height();
+        int[] pixels = image.pixels();
+
+        int count = 0;
+        for (int y = height / 4; y < height - height / 4; y++) {
+            int row = y * width;
+            for (int x = width / 4; x < width - width / 4; x++) {
+                CieLab.rgbToLab(pixels[row + x], lab, count * 3);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 풀에서 버퍼를 꺼내고, 없거나 작으면 새로 할당 (반납 시 풀이 가득 차 있으면 버린다)
+     */
+    private float[] borrowLabBuffer(int size) {
+        float[] buffer = labBuffers.poll();
+        return buffer != null && buffer.length >= size ? buffer : new float[size];
+    }
+}
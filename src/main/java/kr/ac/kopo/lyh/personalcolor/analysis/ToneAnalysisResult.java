@@ -0,0 +1,21 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+/**
+ * 피부톤 분석 결과
+ *
+ * @param colorType  판정된 퍼스널 컬러
+ * @param confidence 분석 신뢰도 (0.0 ~ 1.0)
+ * @param lightness  피부 평균 L*
+ * @param hue        피부 평균 색상각 h (도)
+ * @param chroma     피부 평균 채도 C*
+ * @param skinRatio  전체 샘플 중 피부로 판정된 픽셀 비율
+ */
+public record ToneAnalysisResult(ColorAnalysis.ColorType colorType,
+                                 float confidence,
+                                 float lightness,
+                                 float hue,
+                                 float chroma,
+                                 float skinRatio) {
+}
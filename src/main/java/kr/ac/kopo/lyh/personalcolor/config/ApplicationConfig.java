@@ -1,24 +1,44 @@
 package kr.ac.kopo.lyh.personalcolor.config;
 
 import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.MultipartConfigFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 @Configuration
 public class ApplicationConfig {
 
     @Bean
-    public MultipartConfigElement multipartConfigElement() {
+    public MultipartConfigElement multipartConfigElement(@Value("${app.upload.dir:uploads}") String uploadDir,
+                                                         @Value("${app.upload.max-file-size:10MB}") DataSize maxFileSize) {
         MultipartConfigFactory factory = new MultipartConfigFactory();
-        factory.setMaxFileSize(DataSize.ofMegabytes(10)); // 10MB
-        factory.setMaxRequestSize(DataSize.ofMegabytes(10)); // 10MB
+        // 저장 시 검사(FileStorageService)와 같은 app.upload.max-file-size 한도
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(DataSize.ofMegabytes(50)); // 50MB (일괄 업로드: 최대 10장)
+        // 1MB 이하는 메모리에 보관, 그 이상은 임시 파일로 기록
+        factory.setFileSizeThreshold(DataSize.ofMegabytes(1));
+
+        // 멀티파트 임시 파일을 업로드 디렉토리와 같은 파일시스템에 두어
+        // 저장 시 복사 대신 이름 변경(rename)만 일어나도록 한다
+        Path incoming = Paths.get(uploadDir, ".incoming").toAbsolutePath();
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("멀티파트 임시 디렉토리 생성 실패", e);
+        }
+        factory.setLocation(incoming.toString());
+
         return factory.createMultipartConfig();
     }
 
     // CommonsMultipartResolver 제거 - Spring Boot 기본 multipart 지원 사용
-    // application.properties에서 다음 설정으로 대체:
-    // spring.servlet.multipart.max-file-size=10MB
-    // spring.servlet.multipart.max-request-size=10MB
-}
\ No newline at end of file
+    // 이 빈이 등록되어 있으므로 spring.servlet.multipart.* 설정 대신 위 값이 적용됨
+}
@@ -0,0 +1,88 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 기존 AUTO_INCREMENT 로 쌓인 ID 뒤에서 시퀀스가 시작하도록 기동 시 시퀀스 값을 맞춘다
+ * (IDENTITY → 풀링 시퀀스 전환 후 첫 기동에서 ID 충돌 방지, 이미 앞서 있으면 변경하지 않음)
+ *
+ * MySQL 은 시퀀스가 없어 Hibernate 가 {sequence}(next_val) 테이블로 흉내 내고,
+ * H2 등은 실제 시퀀스를 RESTART 한다.
+ */
+@Component
+@Slf4j
+public class IdSequenceAligner {
+
+    // 테이블 → 시퀀스 (엔티티의 @SequenceGenerator 와 일치)
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "color_analysis", "color_analysis_seq",
+            "users", "users_seq"
+    );
+
+    // 엔티티 allocationSize 와 같게: 풀링 최적화기는 읽은 값 - allocationSize + 1 부터 할당한다
+    private static final long ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    // EntityManagerFactory 주입: 스키마 생성(ddl-auto) 이후에 실행되도록 순서 보장
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate,
+                             DataSource dataSource,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${app.ids.align-sequences-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void align() {
+        if (!enabled) {
+            return;
+        }
+        boolean tableEmulated = isMySql();
+        SEQUENCES.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (maxId == null) {
+                return;
+            }
+            long next = maxId + ALLOCATION_SIZE + 1;
+            if (tableEmulated) {
+                int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next, next);
+                if (updated > 0) {
+                    log.info("ID 시퀀스 조정: {} → {} (기존 최대 ID {})", sequence, next, maxId);
+                }
+            } else {
+                List<Long> current = jdbcTemplate.queryForList(
+                        "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE LOWER(SEQUENCE_NAME) = ?",
+                        Long.class, sequence);
+                if (current.isEmpty() || current.get(0) < next) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+                    log.info("ID 시퀀스 조정: {} → {} (기존 최대 ID {})", sequence, next, maxId);
+                }
+            }
+        });
+    }
+
+    private boolean isMySql() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            return product.contains("mysql");
+        } catch (SQLException e) {
+            throw new RuntimeException("데이터베이스 종류 확인 실패", e);
+        }
+    }
+}
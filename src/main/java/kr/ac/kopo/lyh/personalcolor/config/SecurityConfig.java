@@ -1,5 +1,6 @@
 package kr.ac.kopo.lyh.personalcolor.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,11 +9,26 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // 인증 없이 수집기가 읽는 actuator 엔드포인트
+    private static final Set<String> SCRAPE_PATHS = Set.of("/actuator/health", "/actuator/prometheus");
+
+    private final int serverPort;
+    private final int managementPort;
+
+    public SecurityConfig(@Value("${server.port:8080}") int serverPort,
+                          @Value("${management.server.port:-1}") int managementPort) {
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -23,7 +39,9 @@ public class SecurityConfig {
         http
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/", "/login", "/signup", "/api/login", "/api/auth/**", "/static/**",
-                                "/images/**", "/files/**", "/shop").permitAll()
+                                "/images/**", "/files/**", "/shop", "/api/stats/**").permitAll()
+                        // 지표 수집기(Prometheus) 접근은 관리 포트로 들어온 요청만 허용 (서비스 포트와 같게 설정되면 로그인 필요)
+                        .requestMatchers(scrapeOnManagementPort()).permitAll()
                         .requestMatchers("/upload", "/results", "/history", "/home").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -60,4 +78,10 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private RequestMatcher scrapeOnManagementPort() {
+        return request -> managementPort > 0 && managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && SCRAPE_PATHS.contains(request.getRequestURI());
+    }
 }
\ No newline at end of file
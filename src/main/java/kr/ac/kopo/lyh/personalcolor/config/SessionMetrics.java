@@ -0,0 +1,59 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+
+/**
+ * 세션 직렬화 크기 측정 (session.serialized.bytes)
+ * 세션 저장소와 같은 Java 직렬화로 속성 값 전체를 기록했을 때의 바이트 수를 잰다.
+ */
+@Component
+@Slf4j
+public class SessionMetrics {
+
+    private final DistributionSummary serializedBytes;
+
+    public SessionMetrics(MeterRegistry meterRegistry) {
+        this.serializedBytes = DistributionSummary.builder("session.serialized.bytes")
+                .description("세션 하나의 속성 직렬화 크기")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void record(HttpSession session) {
+        CountingOutputStream counter = new CountingOutputStream();
+        for (String name : Collections.list(session.getAttributeNames())) {
+            counter.count += name.length();
+            try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+                out.writeObject(session.getAttribute(name));
+            } catch (IOException e) {
+                log.warn("세션 속성 직렬화 불가: {} ({})", name, e.getMessage());
+            }
+        }
+        serializedBytes.record(counter.count);
+        log.debug("세션 직렬화 크기: {} bytes", counter.count);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import kr.ac.kopo.lyh.personalcolor.service.UploadPipelineMetrics;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+/**
+ * 멀티파트 파싱 시간 측정 (upload.stage{stage=parse})
+ * 파싱(임시 파일 기록 포함)은 컨트롤러 진입 전에 끝나므로 리졸버에서 잰다.
+ * 크기 초과로 거절된 요청은 upload.rejected{reason=too_large} 로 센다.
+ */
+public class TimedMultipartResolver extends StandardServletMultipartResolver {
+
+    private final UploadPipelineMetrics metrics;
+
+    public TimedMultipartResolver(UploadPipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        try {
+            return metrics.time(UploadPipelineMetrics.Stage.PARSE, () -> super.resolveMultipart(request));
+        } catch (MaxUploadSizeExceededException e) {
+            metrics.reject("too_large");
+            throw e;
+        }
+    }
+}
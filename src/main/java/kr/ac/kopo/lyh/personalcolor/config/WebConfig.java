@@ -1,15 +1,29 @@
 package kr.ac.kopo.lyh.personalcolor.config;
 
+import kr.ac.kopo.lyh.personalcolor.service.UploadPipelineMetrics;
+import kr.ac.kopo.lyh.personalcolor.service.UploadShardLayout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // 정적 리소스 핸들러
@@ -19,16 +33,44 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/images/**")
                 .addResourceLocations("classpath:/static/images/");
 
-        // 업로드된 파일 핸들러
+        // 업로드된 파일 핸들러 (샤드 디렉토리 → 이전 전 평면 경로 순으로 확인)
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:" + Paths.get(uploadDir).toAbsolutePath() + "/")
+                .resourceChain(false)
+                .addResolver(new ShardedUploadResolver());
 
         registry.addResourceHandler("/favicon.ico")
                 .addResourceLocations("classpath:/static/");
     }
 
+    /**
+     * 기본 멀티파트 리졸버 대신 파싱 시간을 재는 리졸버 사용 (DispatcherServlet 이 이 이름으로 찾음)
+     */
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public TimedMultipartResolver multipartResolver(UploadPipelineMetrics uploadPipelineMetrics,
+                                                    MultipartProperties multipartProperties) {
+        TimedMultipartResolver resolver = new TimedMultipartResolver(uploadPipelineMetrics);
+        resolver.setResolveLazily(multipartProperties.isResolveLazily());
+        return resolver;
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         registry.addViewController("/").setViewName("index");
     }
+
+    /**
+     * "/uploads/파일명" 요청을 "ab/cd/파일명" 으로 변환
+     */
+    private static class ShardedUploadResolver extends PathResourceResolver {
+
+        @Override
+        protected Resource getResource(String resourcePath, Resource location) throws IOException {
+            if (!UploadShardLayout.isPlainFileName(resourcePath)) {
+                return null;
+            }
+            Resource sharded = super.getResource(UploadShardLayout.relativePath(resourcePath), location);
+            return sharded != null ? sharded : super.getResource(resourcePath, location);
+        }
+    }
 }
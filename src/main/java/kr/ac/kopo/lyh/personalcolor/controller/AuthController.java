@@ -3,12 +3,18 @@ package kr.ac.kopo.lyh.personalcolor.controller;
 import org.springframework.ui.Model;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.config.SessionMetrics;
 import kr.ac.kopo.lyh.personalcolor.controller.dto.LoginRequest;
 import kr.ac.kopo.lyh.personalcolor.controller.dto.LoginResponse;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
 import kr.ac.kopo.lyh.personalcolor.controller.dto.SignupForm;
+import kr.ac.kopo.lyh.personalcolor.exception.LoginThrottledException;
+import kr.ac.kopo.lyh.personalcolor.service.LoginThrottle;
 import kr.ac.kopo.lyh.personalcolor.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,6 +32,8 @@ import java.util.Collections;
 public class AuthController {
 
     private final UserService userService;
+    private final SessionMetrics sessionMetrics;
+    private final LoginThrottle loginThrottle;
 
     @GetMapping("/login")
     public String loginForm() {
@@ -62,8 +70,13 @@ public class AuthController {
     public ResponseEntity<?> login(@RequestBody LoginRequest request,
                                    HttpServletRequest httpRequest) {
         try {
+            // 이메일·IP별 시도 한도 확인 (해시 계산 전)
+            // 프록시 뒤에서는 server.forward-headers-strategy 로 신뢰할 프록시의 X-Forwarded-For 가 반영된 클라이언트 IP
+            loginThrottle.acquire(request.getEmail(), httpRequest.getRemoteAddr());
+
             // 사용자 인증
             User user = userService.authenticate(request.getEmail(), request.getPassword());
+            loginThrottle.onSuccess(request.getEmail());
 
             // Spring Security 인증 토큰 생성
             UsernamePasswordAuthenticationToken authToken =
@@ -75,9 +88,10 @@ public class AuthController {
             session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
                     SecurityContextHolder.getContext());
 
-            // 추가 사용자 정보 세션에 저장
-            session.setAttribute("user", user);
+            // 추가 사용자 정보 세션에 저장 (엔티티 대신 필요한 값만)
+            session.setAttribute(SessionUser.SESSION_KEY, SessionUser.from(user));
             session.setAttribute("isLoggedIn", true);
+            sessionMetrics.record(session);
 
             log.info("사용자 로그인 성공: {}", user.getEmail());
 
@@ -87,6 +101,14 @@ public class AuthController {
                     .redirectUrl("/") // 로그인 후 바로 업로드 페이지로 이동
                     .build());
 
+        } catch (LoginThrottledException e) {
+            log.warn("로그인 거절: {}, {}", request.getEmail(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(LoginResponse.builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
         } catch (Exception e) {
             log.error("로그인 실패", e);
             return ResponseEntity.ok(LoginResponse.builder()
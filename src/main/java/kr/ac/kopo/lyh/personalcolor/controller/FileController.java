@@ -1,48 +1,184 @@
 package kr.ac.kopo.lyh.personalcolor.controller;
 
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.ImageDerivativeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequiredArgsConstructor
 @Slf4j
 public class FileController {
 
+    // Tomcat sendfile 요청 속성 (커널에서 파일 → 소켓 직접 전송)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 내용 주소 파일은 내용이 바뀌지 않으므로 1년 캐시 (개인 사진이므로 private)
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate();
+
     private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+
+    // 확장자 → Content-Type
+    private final Map<String, MediaType> mediaTypes = new ConcurrentHashMap<>();
 
     @GetMapping("/files/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
+    public ResponseEntity<?> downloadFile(@PathVariable String fileName,
+                                          @RequestParam(required = false) Integer size,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) {
+        // 잘못된 요청 값은 400, 파일이 없을 때만 404
+        if (size != null && !imageDerivativeService.getSizes().contains(size)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "지원하지 않는 크기입니다: " + size));
+        }
         try {
-            Resource resource = fileStorageService.loadFile(fileName);
+            Path original = fileStorageService.getExistingFilePath(fileName);
 
-            // 파일의 Content-Type 결정
-            String contentType = "application/octet-stream";
-            try {
-                contentType = Files.probeContentType(Paths.get(resource.getFile().getAbsolutePath()));
-            } catch (IOException e) {
-                log.debug("파일 타입을 결정할 수 없습니다: {}", fileName);
+            // 축소본 요청 시 준비된 축소본, 아직 없으면 원본 제공
+            Path path = size != null ? imageDerivativeService.resolve(original, size) : original;
+            boolean fallback = size != null && path.equals(original);
+            String servedName = path.getFileName().toString();
+
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long length = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            String contentHash = fileStorageService.contentHashOf(fileName);
+            String eTag = contentHash != null
+                    ? "\"" + servedName.substring(0, servedName.lastIndexOf('.')) + "\""
+                    : "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+            // If-None-Match / If-Modified-Since 처리 (일치하면 304 응답 후 종료)
+            if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(mediaTypeOf(servedName));
+            headers.setETag(eTag);
+            headers.setLastModified(lastModified);
+            // 원본으로 대체 제공한 응답은 축소본이 준비되면 바뀌므로 오래 캐시하지 않는다
+            headers.setCacheControl(fallback ? CacheControl.noCache().cachePrivate()
+                    : contentHash != null ? IMMUTABLE : REVALIDATE);
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + servedName + "\"");
+
+            List<HttpRange> ranges = requestedRanges(request, eTag, lastModified);
+            if (ranges.size() > 1) {
+                // 다중 범위는 multipart/byteranges 로 스프링이 처리
+                return ResponseEntity.ok().headers(headers).body(new FileSystemResource(path));
+            }
+
+            long start = 0;
+            long end = length - 1;
+            HttpStatus status = HttpStatus.OK;
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            headers.setContentLength(end - start + 1);
+
+            // sendfile 지원 시 본문은 컨테이너가 커널 레벨에서 직접 전송
+            if ("GET".equals(request.getMethod()) && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return ResponseEntity.status(status).headers(headers).build();
             }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .body(resource);
+            FileSystemResource resource = new FileSystemResource(path);
+            if (status == HttpStatus.PARTIAL_CONTENT) {
+                return ResponseEntity.status(status).headers(headers)
+                        .body(new ResourceRegion(resource, start, end - start + 1));
+            }
+            if (request.getHeader(HttpHeaders.RANGE) != null) {
+                // If-Range 불일치·잘못된 Range 로 전체를 보내는 경우: 스프링이 Resource 본문에 Range 를 다시 적용하지 않도록
+                // (InputStreamResource 는 범위 처리 대상이 아니다)
+                return ResponseEntity.ok().headers(headers).body(new InputStreamResource(Files.newInputStream(path)));
+            }
+            return ResponseEntity.ok().headers(headers).body(resource);
 
         } catch (Exception e) {
             log.error("파일 다운로드 오류: {}", fileName, e);
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Range 요청 해석 (If-Range 가 현재 버전과 다르면 전체 응답)
+     */
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String eTag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                return List.of();
+            }
+            try {
+                if (lastModified / 1000 > request.getDateHeader(HttpHeaders.IF_RANGE) / 1000) {
+                    return List.of();
+                }
+            } catch (IllegalArgumentException e) {
+                return List.of();
+            }
+        }
+
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("잘못된 Range 헤더 무시: {}", rangeHeader);
+            return List.of();
+        }
+    }
+
+    private MediaType mediaTypeOf(String fileName) {
+        int lastDotIndex = fileName.lastIndexOf('.');
+        String extension = lastDotIndex == -1 ? "" : fileName.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT);
+        return mediaTypes.computeIfAbsent(extension, ext -> MediaTypeFactory.getMediaType("file." + ext)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
 }
@@ -1,5 +1,6 @@
 package kr.ac.kopo.lyh.personalcolor.controller;
 
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
 import org.springframework.ui.Model;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -57,7 +58,7 @@ public class MainController {
         boolean isAuthenticated = auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal());
 
         HttpSession session = request.getSession(false);
-        Object user = session != null ? session.getAttribute("user") : null;
+        Object user = session != null ? session.getAttribute(SessionUser.SESSION_KEY) : null;
 
         Map<String, Object> response = new HashMap<>();
         response.put("isAuthenticated", isAuthenticated);
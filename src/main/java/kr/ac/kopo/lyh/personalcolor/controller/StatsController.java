@@ -0,0 +1,119 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisRollupService;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisTrend;
+import kr.ac.kopo.lyh.personalcolor.service.ColorStatistics;
+import kr.ac.kopo.lyh.personalcolor.service.ColorStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공개 통계 API (로그인 불필요)
+ */
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+
+    // 한 번에 조회할 수 있는 최대 기간 (일)
+    private static final int MAX_DAILY_RANGE_DAYS = 366;
+    private static final int MAX_HOURLY_RANGE_DAYS = 31;
+
+    private final ColorStatisticsService colorStatisticsService;
+    private final AnalysisRollupService analysisRollupService;
+
+    /**
+     * 전체 분석 결과의 컬러 타입별·성별 분포 (요약 테이블 + 이 서버의 미반영 변경분, DB 조회 없음)
+     */
+    @GetMapping("/api/stats/color-types")
+    public ResponseEntity<?> getColorTypeStatistics() {
+        ColorStatistics statistics = colorStatisticsService.snapshot();
+
+        List<Map<String, Object>> colorTypes = new ArrayList<>();
+        for (Map.Entry<ColorAnalysis.ColorType, Long> entry : statistics.byColorType().entrySet()) {
+            long count = entry.getValue();
+            colorTypes.add(Map.of(
+                    "colorType", entry.getKey().name(),
+                    "displayName", entry.getKey().getDisplayName(),
+                    "count", count,
+                    "ratio", statistics.total() > 0 ? (double) count / statistics.total() : 0.0
+            ));
+        }
+
+        Map<String, Object> byGender = new LinkedHashMap<>();
+        for (Map.Entry<Gender, Map<ColorAnalysis.ColorType, Long>> entry : statistics.byGender().entrySet()) {
+            byGender.put(entry.getKey().name(), entry.getValue());
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.SECONDS).cachePublic())
+                .body(Map.of(
+                        "total", statistics.total(),
+                        "colorTypes", colorTypes,
+                        "byGender", byGender
+                ));
+    }
+
+    /**
+     * 기간별 분석 추이 (시간·일 단위 집계 구간 합산, 원본 행 조회 없음)
+     *
+     * @param from        시작일 (포함)
+     * @param to          종료일 (포함)
+     * @param granularity day | hour
+     */
+    @GetMapping("/api/stats/analyses")
+    public ResponseEntity<?> getAnalysisTrend(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(defaultValue = "day") String granularity) {
+        AnalysisRollup.Granularity unit = switch (granularity) {
+            case "day" -> AnalysisRollup.Granularity.DAILY;
+            case "hour" -> AnalysisRollup.Granularity.HOURLY;
+            default -> throw new IllegalArgumentException("granularity 는 day 또는 hour 만 가능합니다.");
+        };
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        int maxDays = unit == AnalysisRollup.Granularity.DAILY ? MAX_DAILY_RANGE_DAYS : MAX_HOURLY_RANGE_DAYS;
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("조회 기간은 1일 이상 " + maxDays + "일 이하여야 합니다.");
+        }
+
+        AnalysisTrend trend = analysisRollupService.getTrend(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), unit);
+
+        List<Map<String, Object>> buckets = new ArrayList<>(trend.buckets().size());
+        for (AnalysisTrend.Bucket bucket : trend.buckets()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("start", bucket.start());
+            item.put("total", bucket.total());
+            item.put("byColorType", bucket.byColorType());
+            item.put("averageConfidence", bucket.averageConfidence());
+            buckets.add(item);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", from);
+        response.put("to", to);
+        response.put("granularity", granularity);
+        response.put("total", trend.total());
+        response.put("byColorType", trend.byColorType());
+        response.put("averageConfidence", trend.averageConfidence());
+        response.put("buckets", buckets);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.SECONDS).cachePublic())
+                .body(response);
+    }
+}
@@ -2,22 +2,38 @@ package kr.ac.kopo.lyh.personalcolor.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
 import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
-import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AiModelUnavailableException;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisQueueFullException;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisJob;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisJobService;
+import kr.ac.kopo.lyh.personalcolor.service.BatchAnalysisResult;
+import kr.ac.kopo.lyh.personalcolor.service.BatchAnalysisService;
 import kr.ac.kopo.lyh.personalcolor.service.ColorAnalysisService;
 import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.HistoryPage;
+import kr.ac.kopo.lyh.personalcolor.service.UploadPipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,8 +42,13 @@ import java.util.Map;
 @Slf4j
 public class UploadController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 50;
+
     private final FileStorageService fileStorageService;
     private final ColorAnalysisService colorAnalysisService;
+    private final AnalysisJobService analysisJobService;
+    private final BatchAnalysisService batchAnalysisService;
+    private final UploadPipelineMetrics uploadPipelineMetrics;
 
 //    @GetMapping("/upload")
 //    public String uploadForm() {
@@ -37,19 +58,22 @@ public class UploadController {
     @PostMapping("/upload")
     @ResponseBody
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file,
+                                        @RequestParam(defaultValue = "false") boolean async,
                                         HttpServletRequest request) {
         try {
             // 로그인 확인
             HttpSession session = request.getSession(false);
-            if (session == null || session.getAttribute("user") == null) {
+            if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
+                uploadPipelineMetrics.reject("unauthenticated");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("success", false, "error", "로그인이 필요합니다."));
             }
 
-            User user = (User) session.getAttribute("user");
+            SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
 
             // 파일 검증
             if (file.isEmpty()) {
+                uploadPipelineMetrics.reject("empty");
                 return ResponseEntity.badRequest()
                         .body(Map.of("success", false, "error", "파일이 비어있습니다."));
             }
@@ -57,19 +81,40 @@ public class UploadController {
             // 이미지 파일 확인
             String contentType = file.getContentType();
             if (contentType == null || !contentType.startsWith("image/")) {
+                uploadPipelineMetrics.reject("not_image");
                 return ResponseEntity.badRequest()
                         .body(Map.of("success", false, "error", "이미지 파일만 업로드 가능합니다."));
             }
 
             // 파일 저장
-            String storedFileName = fileStorageService.storeFile(file);
+            String storedFileName = uploadPipelineMetrics.time(UploadPipelineMetrics.Stage.STORE,
+                    () -> fileStorageService.storeFile(file));
+
+            // 비동기 모드: 분석 작업만 등록하고 바로 응답
+            if (async) {
+                return submitAnalysisJob(user, file.getOriginalFilename(), storedFileName);
+            }
 
             // 이미지 분석 수행
-            ColorAnalysis analysis = colorAnalysisService.analyzeImage(
-                    user,
-                    file.getOriginalFilename(),
-                    storedFileName
-            );
+            ColorAnalysis analysis;
+            try {
+                analysis = colorAnalysisService.analyzeImage(
+                        user,
+                        file.getOriginalFilename(),
+                        storedFileName
+                );
+            } catch (RuntimeException e) {
+                // 결과를 남기지 못했으므로 저장할 때 늘린 파일 참조도 해제
+                fileStorageService.releaseQuietly(storedFileName);
+                if (e instanceof AnalysisQueueFullException) {
+                    // 지연 저장 버퍼 포화
+                    uploadPipelineMetrics.reject("write_behind_full");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(Map.of("success", false, "error", e.getMessage()));
+                }
+                throw e;
+            }
 
             // 세션에 분석 결과 ID 저장
             session.setAttribute("latestAnalysisId", analysis.getId());
@@ -81,8 +126,133 @@ public class UploadController {
                     "redirectUrl", "/results"
             ));
 
+        } catch (IllegalArgumentException e) {
+            // 지원하지 않는 형식·크기 초과·빈 파일 등 잘못된 업로드
+            uploadPipelineMetrics.reject("invalid_file");
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (AiModelUnavailableException e) {
+            log.warn("AI 서버 사용 불가: {}", e.getMessage());
+            uploadPipelineMetrics.reject("ai_unavailable");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .body(Map.of("success", false, "error", "분석 서버가 일시적으로 응답하지 않습니다. 잠시 후 다시 시도해주세요."));
         } catch (Exception e) {
             log.error("파일 업로드 및 분석 중 오류 발생", e);
+            uploadPipelineMetrics.reject("error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "분석 중 오류가 발생했습니다."));
+        }
+    }
+
+    private ResponseEntity<?> submitAnalysisJob(SessionUser user, String originalFileName, String storedFileName) {
+        try {
+            AnalysisJob job = analysisJobService.submit(user, originalFileName, storedFileName);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/upload/jobs/" + job.getId())
+                    .body(Map.of(
+                            "success", true,
+                            "message", "분석 요청이 접수되었습니다.",
+                            "jobId", job.getId(),
+                            "statusUrl", "/upload/jobs/" + job.getId()
+                    ));
+        } catch (AnalysisQueueFullException e) {
+            fileStorageService.releaseQuietly(storedFileName);
+            uploadPipelineMetrics.reject("queue_full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/upload/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> jobStatus(@PathVariable String jobId, HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "error", "로그인이 필요합니다."));
+        }
+
+        SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
+        AnalysisJob job = analysisJobService.getJob(jobId, user.id());
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "error", "존재하지 않는 분석 작업입니다."));
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", true);
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus());
+        body.put("submittedAt", job.getSubmittedAt());
+
+        if (job.getStatus() == AnalysisJob.Status.DONE) {
+            // 세션에 분석 결과 ID 저장
+            session.setAttribute("latestAnalysisId", job.getAnalysisId());
+            body.put("analysisId", job.getAnalysisId());
+            body.put("redirectUrl", "/results");
+        } else if (job.getStatus() == AnalysisJob.Status.FAILED) {
+            body.put("error", job.getError());
+        }
+
+        return ResponseEntity.ok(body);
+    }
+
+    @PostMapping("/upload/batch")
+    @ResponseBody
+    public ResponseEntity<?> uploadBatch(@RequestParam("files") List<MultipartFile> files,
+                                         HttpServletRequest request) {
+        try {
+            // 로그인 확인
+            HttpSession session = request.getSession(false);
+            if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("success", false, "error", "로그인이 필요합니다."));
+            }
+
+            SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
+            BatchAnalysisResult result = batchAnalysisService.analyzeBatch(user, files);
+
+            List<Map<String, Object>> images = new ArrayList<>();
+            for (BatchAnalysisResult.ImageResult image : result.images()) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("fileName", image.originalFileName());
+                item.put("success", image.isSuccess());
+                if (image.isSuccess()) {
+                    item.put("analysisId", image.analysis().getId());
+                    item.put("colorType", image.analysis().getColorType());
+                    item.put("confidence", image.analysis().getConfidence());
+                } else {
+                    item.put("error", image.error());
+                }
+                images.add(item);
+            }
+
+            if (result.consensusType() == null) {
+                return ResponseEntity.unprocessableEntity()
+                        .body(Map.of("success", false, "error", "분석 가능한 이미지가 없습니다.", "results", images));
+            }
+
+            // 세션에 대표 분석 결과 ID 저장
+            session.setAttribute("latestAnalysisId", result.representative().getId());
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "분석이 완료되었습니다!",
+                    "colorType", result.consensusType(),
+                    "displayName", result.consensusType().getDisplayName(),
+                    "confidence", result.consensusConfidence(),
+                    "analysisId", result.representative().getId(),
+                    "results", images,
+                    "redirectUrl", "/results"
+            ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("일괄 업로드 및 분석 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("success", false, "error", "분석 중 오류가 발생했습니다."));
         }
@@ -91,71 +261,113 @@ public class UploadController {
     @GetMapping("/results")
     public String results(HttpServletRequest request, Model model) {
         HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute("user") == null) {
+        if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
             return "redirect:/login";
         }
 
-        User user = (User) session.getAttribute("user");
+        SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
         Long analysisId = (Long) session.getAttribute("latestAnalysisId");
 
-        ColorAnalysis analysis;
-        if (analysisId != null) {
-            // 특정 분석 결과 조회
-            analysis = colorAnalysisService.getUserAnalyses(user).stream()
-                    .filter(a -> a.getId().equals(analysisId))
-                    .findFirst()
-                    .orElse(null);
-        } else {
-            // 최근 분석 결과 조회
-            analysis = colorAnalysisService.getLatestAnalysis(user);
-        }
+        // 특정 분석 결과(본인 것만) 또는 최근 분석 결과 조회
+        AnalysisSummary analysis = analysisId != null
+                ? colorAnalysisService.getAnalysisSummary(analysisId, user)
+                : colorAnalysisService.getLatestSummary(user);
 
         if (analysis == null) {
             return "redirect:/upload";
         }
 
         model.addAttribute("analysis", analysis);
-        model.addAttribute("colorType", analysis.getColorType().getDisplayName());
-        model.addAttribute("description", analysis.getDescription());
-        model.addAttribute("confidence", Math.round(analysis.getConfidence() * 100));
-        model.addAttribute("uploadedFile", analysis.getStoredFileName());
+        model.addAttribute("colorType", analysis.colorType().getDisplayName());
+        model.addAttribute("description", analysis.description());
+        model.addAttribute("confidence", Math.round(analysis.confidence() * 100));
+        model.addAttribute("uploadedFile", analysis.storedFileName());
 
         return "results";
     }
 
     @GetMapping("/history")
     public String history(HttpServletRequest request,
-                          @RequestParam(defaultValue = "0") int page,
+                          @RequestParam(required = false) String cursor,
                           @RequestParam(defaultValue = "10") int size,
+                          @RequestParam(defaultValue = "false") boolean count,
                           Model model) {
         HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute("user") == null) {
+        if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
             return "redirect:/login";
         }
 
-        User user = (User) session.getAttribute("user");
-        Pageable pageable = PageRequest.of(page, size);
-        Page<ColorAnalysis> analyses = colorAnalysisService.getUserAnalyses(user, pageable);
+        SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        HistoryPage analyses = colorAnalysisService.getHistory(user, cursor, pageSize, count);
 
-        model.addAttribute("analyses", analyses);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", analyses.getTotalPages());
-        model.addAttribute("totalElements", analyses.getTotalElements());
+        model.addAttribute("analyses", analyses.items());
+        model.addAttribute("nextCursor", analyses.nextCursor());
+        model.addAttribute("hasNext", analyses.hasNext());
+        model.addAttribute("size", pageSize);
+        if (analyses.totalCount() != null) {
+            model.addAttribute("totalElements", analyses.totalCount());
+        }
 
         return "history";
     }
 
+    /**
+     * 전체 히스토리 CSV 내보내기 (DB 에서 스트리밍으로 읽어 바로 응답에 기록)
+     */
+    @GetMapping("/history/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
+        StreamingResponseBody body = out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("id,analyzedAt,colorType,confidence,originalFileName\n");
+            colorAnalysisService.forEachHistoryItem(user, item -> {
+                try {
+                    writer.write(item.id() + "," + item.analyzedAt() + "," + item.colorType() + ","
+                            + item.confidence() + "," + csv(item.originalFileName()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"history.csv\"")
+                .body(body);
+    }
+
+    /**
+     * CSV 값 인용. 사용자가 정한 파일 이름이 스프레드시트에서 수식으로 실행되지 않도록
+     * =, +, -, @, 탭, CR 로 시작하면 앞에 ' 를 붙인다 (CSV injection 방지)
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
     @DeleteMapping("/analysis/{id}")
     @ResponseBody
     public ResponseEntity<?> deleteAnalysis(@PathVariable Long id, HttpServletRequest request) {
         try {
             HttpSession session = request.getSession(false);
-            if (session == null || session.getAttribute("user") == null) {
+            if (session == null || session.getAttribute(SessionUser.SESSION_KEY) == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("success", false, "error", "로그인이 필요합니다."));
             }
 
-            User user = (User) session.getAttribute("user");
+            SessionUser user = (SessionUser) session.getAttribute(SessionUser.SESSION_KEY);
             colorAnalysisService.deleteAnalysis(id, user);
 
             return ResponseEntity.ok(Map.of("success", true, "message", "분석 결과가 삭제되었습니다."));
@@ -0,0 +1,69 @@
+package kr.ac.kopo.lyh.personalcolor.controller.dto;
+
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 세션에 저장하는 로그인 사용자 정보 (불변)
+ * JPA 엔티티·비밀번호 해시 없이 화면과 서비스에 필요한 값만 담는다.
+ * 세션 저장소(spring-session-jdbc)에 기록될 때는 필드 설명자 없이 값만 쓰는 Compact 형식으로 직렬화된다.
+ */
+public record SessionUser(Long id, String email, String name, Gender gender) implements Serializable {
+
+    public static final String SESSION_KEY = "user";
+
+    public static SessionUser from(User user) {
+        return new SessionUser(user.getId(), user.getEmail(), user.getName(), user.getGender());
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new Compact(this);
+    }
+
+    /**
+     * 직렬화 형식: id(long) + email(UTF) + name(UTF) + gender(byte, 없으면 -1)
+     */
+    static final class Compact implements Externalizable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private SessionUser user;
+
+        public Compact() {
+        }
+
+        Compact(SessionUser user) {
+            this.user = user;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeLong(user.id());
+            out.writeUTF(user.email());
+            out.writeUTF(user.name());
+            out.writeByte(user.gender() != null ? user.gender().ordinal() : -1);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            long id = in.readLong();
+            String email = in.readUTF();
+            String name = in.readUTF();
+            int gender = in.readByte();
+            user = new SessionUser(id, email, name, gender >= 0 ? Gender.values()[gender] : null);
+        }
+
+        @Serial
+        private Object readResolve() {
+            return user;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package kr.ac.kopo.lyh.personalcolor.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 시간 구간별 분석 집계 (시간 단위 → 보관 기간이 지나면 일 단위로 압축)
+ * 한 구간의 값은 HOURLY 또는 DAILY 행 중 한 곳에만 존재하므로 기간 조회는 두 단위를 그대로 합산한다.
+ */
+@Entity
+@Table(name = "analysis_rollup",
+        indexes = @Index(name = "idx_analysis_rollup_bucket", columnList = "bucket_start"))
+@IdClass(AnalysisRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalysisRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Granularity granularity;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ColorAnalysis.ColorType colorType;
+
+    @Column(nullable = false)
+    private Long analysisCount;
+
+    // 평균 신뢰도 = confidenceSum / confidenceCount (신뢰도 없는 결과는 제외)
+    @Column(nullable = false)
+    private Double confidenceSum;
+
+    @Column(nullable = false)
+    private Long confidenceCount;
+
+    public enum Granularity {
+        HOURLY, DAILY
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+        private ColorAnalysis.ColorType colorType;
+    }
+}
@@ -10,15 +10,20 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "color_analysis")
+// 사용자별 최신순 조회(keyset 페이징)용 복합 인덱스
+@Table(name = "color_analysis",
+        indexes = @Index(name = "idx_color_analysis_user_analyzed", columnList = "user_id, analyzed_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ColorAnalysis {
 
+    // 풀링 시퀀스: 50개 단위로 ID 를 미리 할당받아 INSERT 를 JDBC 배치로 묶을 수 있게 한다
+    // (IDENTITY 는 행마다 INSERT 직후 키를 받아야 해서 배치가 꺼진다. MySQL 에서는 테이블로 흉내 낸다)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "color_analysis_seq")
+    @SequenceGenerator(name = "color_analysis_seq", sequenceName = "color_analysis_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,8 +44,8 @@ public class ColorAnalysis {
     private String description;
 
     // 분석 결과 상세 정보
-    @Column
-    private String dominantColors; // JSON 형태로 저장
+    @Column(length = 512)
+    private String dominantColors; // JSON 형태로 저장 ([{"hex":"#RRGGBB","weight":0.0~1.0}, ...])
 
     @Column
     private Float confidence; // 분석 신뢰도 (0.0 ~ 1.0)
@@ -0,0 +1,45 @@
+package kr.ac.kopo.lyh.personalcolor.entity;
+
+import jakarta.persistence.*;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 컬러 타입 × 성별 분석 건수 요약
+ * 메모리 카운터(ColorStatisticsService)의 변경분을 주기적으로 반영한다.
+ */
+@Entity
+@Table(name = "color_type_stats")
+@IdClass(ColorTypeStatistic.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ColorTypeStatistic {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ColorAnalysis.ColorType colorType;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Gender gender;
+
+    @Column(nullable = false)
+    private Long analysisCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private ColorAnalysis.ColorType colorType;
+        private Gender gender;
+    }
+}
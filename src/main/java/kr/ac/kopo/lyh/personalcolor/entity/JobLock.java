@@ -0,0 +1,22 @@
+package kr.ac.kopo.lyh.personalcolor.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 여러 서버가 같은 정기 작업(집계 압축 등)을 동시에 수행하지 않도록 잡는 이름별 잠금 행
+ * 작업 트랜잭션 안에서 SELECT ... FOR UPDATE 로 잠그며, 다른 서버는 커밋될 때까지 기다린다.
+ */
+@Entity
+@Table(name = "job_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+}
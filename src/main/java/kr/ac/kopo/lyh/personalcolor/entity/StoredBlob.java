@@ -0,0 +1,39 @@
+package kr.ac.kopo.lyh.personalcolor.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 해시(SHA-256)로 식별되는 업로드 파일
+ * 같은 내용은 한 번만 저장하고 참조 수로 수명을 관리한다.
+ */
+@Entity
+@Table(name = "stored_blob")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
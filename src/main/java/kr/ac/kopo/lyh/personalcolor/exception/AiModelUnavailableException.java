@@ -0,0 +1,12 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 외부 AI 모델 서버를 사용할 수 없을 때 발생
+ * (연결 차단 중, 동시 요청 한도 초과, 재시도 후에도 응답 실패)
+ */
+public class AiModelUnavailableException extends RuntimeException {
+
+    public AiModelUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
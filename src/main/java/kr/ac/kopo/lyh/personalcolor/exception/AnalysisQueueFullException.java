@@ -0,0 +1,11 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 분석 작업 대기열이 가득 차 새 작업을 받을 수 없을 때 발생
+ */
+public class AnalysisQueueFullException extends RuntimeException {
+
+    public AnalysisQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
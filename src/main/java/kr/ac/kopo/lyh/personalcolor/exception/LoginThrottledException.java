@@ -0,0 +1,18 @@
+package kr.ac.kopo.lyh.personalcolor.exception;
+
+/**
+ * 로그인 시도 한도 초과 또는 비밀번호 검증 작업자 포화로 로그인을 즉시 거절할 때 발생
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 화면(히스토리, 내보내기)용 분석 결과 한 줄
+ * 설명·대표 색상 JSON·사용자 연관 없이 목록에 표시하는 필드만 조회한다.
+ * (영속성 컨텍스트에 올라가지 않으므로 스냅샷/변경 감지 비용도 없다)
+ */
+public record AnalysisListItem(Long id,
+                               ColorAnalysis.ColorType colorType,
+                               Float confidence,
+                               String originalFileName,
+                               String storedFileName,
+                               LocalDateTime analyzedAt) {
+}
@@ -0,0 +1,44 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import jakarta.persistence.QueryHint;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalysisRollupRepository extends JpaRepository<AnalysisRollup, AnalysisRollup.Key> {
+
+    // 기간 내 집계 구간 (시간·일 단위 모두, 구간 시작 시각 기준)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM AnalysisRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    List<AnalysisRollup> findByRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 특정 단위의 기준 시각 이전 구간 (압축 대상)
+    @Query("SELECT r FROM AnalysisRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    List<AnalysisRollup> findByGranularityBefore(@Param("granularity") AnalysisRollup.Granularity granularity,
+                                                 @Param("before") LocalDateTime before);
+
+    // 구간 값에 변경분 더하기
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AnalysisRollup r SET r.analysisCount = r.analysisCount + :count, " +
+            "r.confidenceSum = r.confidenceSum + :confidenceSum, " +
+            "r.confidenceCount = r.confidenceCount + :confidenceCount " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.colorType = :colorType")
+    int addToBucket(@Param("granularity") AnalysisRollup.Granularity granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("colorType") ColorAnalysis.ColorType colorType,
+                    @Param("count") long count,
+                    @Param("confidenceSum") double confidenceSum,
+                    @Param("confidenceCount") long confidenceCount);
+}
@@ -0,0 +1,24 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.time.LocalDateTime;
+
+/**
+ * 결과 화면에 필요한 분석 결과 필드만 담은 읽기 전용 조회 결과
+ * (엔티티·사용자 연관을 로딩하지 않는다)
+ */
+public record AnalysisSummary(Long id,
+                              ColorAnalysis.ColorType colorType,
+                              String description,
+                              Float confidence,
+                              String storedFileName,
+                              String dominantColors,
+                              LocalDateTime analyzedAt) {
+
+    public static AnalysisSummary of(ColorAnalysis analysis) {
+        return new AnalysisSummary(analysis.getId(), analysis.getColorType(), analysis.getDescription(),
+                analysis.getConfidence(), analysis.getStoredFileName(), analysis.getDominantColors(),
+                analysis.getAnalyzedAt());
+    }
+}
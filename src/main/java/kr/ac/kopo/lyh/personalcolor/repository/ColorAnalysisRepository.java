@@ -1,39 +1,100 @@
 package kr.ac.kopo.lyh.personalcolor.repository;
 
+import jakarta.persistence.QueryHint;
 import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ColorAnalysisRepository extends JpaRepository<ColorAnalysis, Long> {
 
-    // 사용자별 분석 결과 조회
+    // 사용자별 분석 결과 조회 (조회 전용: 스냅샷 생략)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<ColorAnalysis> findByUserOrderByAnalyzedAtDesc(User user);
 
     // 사용자별 분석 결과 페이징 조회
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<ColorAnalysis> findByUserOrderByAnalyzedAtDesc(User user, Pageable pageable);
 
     // 사용자의 최근 분석 결과 조회
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<ColorAnalysis> findFirstByUserOrderByAnalyzedAtDesc(User user);
 
+    // 소유자 확인을 겸한 단건 조회 (PK 조회, 결과 화면용 필드만)
+    @Query("SELECT new kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary(" +
+            "ca.id, ca.colorType, ca.description, ca.confidence, ca.storedFileName, ca.dominantColors, ca.analyzedAt) " +
+            "FROM ColorAnalysis ca WHERE ca.id = :id AND ca.user.id = :userId")
+    Optional<AnalysisSummary> findSummaryByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // 사용자의 최근 분석 결과 (결과 화면용 필드만, PageRequest.of(0, 1) 로 호출)
+    @Query("SELECT new kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary(" +
+            "ca.id, ca.colorType, ca.description, ca.confidence, ca.storedFileName, ca.dominantColors, ca.analyzedAt) " +
+            "FROM ColorAnalysis ca WHERE ca.user.id = :userId ORDER BY ca.analyzedAt DESC, ca.id DESC")
+    List<AnalysisSummary> findLatestSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    // 히스토리 첫 페이지 (keyset 페이징, PageRequest.of(0, size) 로 호출)
+    @Query("SELECT new kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem(" +
+            "ca.id, ca.colorType, ca.confidence, ca.originalFileName, ca.storedFileName, ca.analyzedAt) " +
+            "FROM ColorAnalysis ca WHERE ca.user.id = :userId ORDER BY ca.analyzedAt DESC, ca.id DESC")
+    List<AnalysisListItem> findHistoryFirst(@Param("userId") Long userId, Pageable pageable);
+
+    // 히스토리 다음 페이지: (analyzedAt, id) 가 커서보다 이전인 행부터 (OFFSET 없이 인덱스 탐색)
+    @Query("SELECT new kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem(" +
+            "ca.id, ca.colorType, ca.confidence, ca.originalFileName, ca.storedFileName, ca.analyzedAt) " +
+            "FROM ColorAnalysis ca WHERE ca.user.id = :userId " +
+            "AND (ca.analyzedAt < :analyzedAt OR (ca.analyzedAt = :analyzedAt AND ca.id < :id)) " +
+            "ORDER BY ca.analyzedAt DESC, ca.id DESC")
+    List<AnalysisListItem> findHistoryAfter(@Param("userId") Long userId,
+                                            @Param("analyzedAt") LocalDateTime analyzedAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    // 사용자 전체 히스토리 스트리밍 (fetch size 단위로 나눠 읽어 전체를 메모리에 올리지 않음)
+    // 호출 측 트랜잭션 안에서 try-with-resources 로 닫아야 한다
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem(" +
+            "ca.id, ca.colorType, ca.confidence, ca.originalFileName, ca.storedFileName, ca.analyzedAt) " +
+            "FROM ColorAnalysis ca WHERE ca.user.id = :userId ORDER BY ca.analyzedAt DESC, ca.id DESC")
+    Stream<AnalysisListItem> streamHistory(@Param("userId") Long userId);
+
+    // 전체 분석 결과의 집계용 필드 (시간대별 집계 초기 구성 시에만 사용)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ca.colorType, ca.confidence, ca.analyzedAt FROM ColorAnalysis ca")
+    Stream<Object[]> streamRollupSource();
+
+    // 사용자 ID 기준 분석 횟수 (히스토리 전체 건수 요청 시에만 사용)
+    @Query("SELECT COUNT(ca) FROM ColorAnalysis ca WHERE ca.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
     // 특정 기간 내 분석 결과 조회
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT ca FROM ColorAnalysis ca WHERE ca.user = :user AND ca.analyzedAt BETWEEN :startDate AND :endDate ORDER BY ca.analyzedAt DESC")
     List<ColorAnalysis> findByUserAndDateRange(@Param("user") User user,
                                                @Param("startDate") LocalDateTime startDate,
                                                @Param("endDate") LocalDateTime endDate);
 
-    // 컬러 타입별 통계
-    @Query("SELECT ca.colorType, COUNT(ca) FROM ColorAnalysis ca GROUP BY ca.colorType")
-    List<Object[]> getColorTypeStatistics();
+    // 컬러 타입 × 성별 건수 (통계 카운터 재구성 시에만 사용하는 전체 집계)
+    @Query("SELECT ca.colorType, u.gender, COUNT(ca) FROM ColorAnalysis ca JOIN ca.user u " +
+            "GROUP BY ca.colorType, u.gender")
+    List<Object[]> countByColorTypeAndGender();
 
     // 사용자별 분석 횟수
     @Query("SELECT COUNT(ca) FROM ColorAnalysis ca WHERE ca.user = :user")
@@ -0,0 +1,33 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import jakarta.persistence.LockModeType;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorTypeStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ColorTypeStatisticRepository extends JpaRepository<ColorTypeStatistic, ColorTypeStatistic.Key> {
+
+    // 누적 변경분 반영 (행 잠금은 해당 컬러 타입·성별 한 행만)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ColorTypeStatistic s SET s.analysisCount = s.analysisCount + :delta " +
+            "WHERE s.colorType = :colorType AND s.gender = :gender")
+    int addCount(@Param("colorType") ColorAnalysis.ColorType colorType,
+                 @Param("gender") Gender gender,
+                 @Param("delta") long delta);
+
+    // 기동 시 재집계하는 동안 다른 서버의 변경분 반영(addCount)이 끼어들지 않도록 전체 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ColorTypeStatistic s")
+    List<ColorTypeStatistic> findAllForUpdate();
+}
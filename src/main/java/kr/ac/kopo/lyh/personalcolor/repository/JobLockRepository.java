@@ -0,0 +1,20 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import jakarta.persistence.LockModeType;
+import kr.ac.kopo.lyh.personalcolor.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // 잠금 행 획득 (현재 트랜잭션이 끝날 때까지 유지)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM JobLock l WHERE l.name = :name")
+    Optional<JobLock> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,29 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import kr.ac.kopo.lyh.personalcolor.entity.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    Optional<StoredBlob> findByFileName(String fileName);
+
+    // 참조 수 증가
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :hash")
+    int incrementRefCount(@Param("hash") String contentHash);
+
+    // 참조 수 감소
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 WHERE b.contentHash = :hash AND b.refCount > 0")
+    int decrementRefCount(@Param("hash") String contentHash);
+}
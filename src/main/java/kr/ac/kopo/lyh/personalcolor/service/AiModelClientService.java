@@ -0,0 +1,495 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.analysis.DominantColor;
+import kr.ac.kopo.lyh.personalcolor.analysis.DominantColorExtractor;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalysis;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalyzer;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.exception.AiModelUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 외부 AI 모델 서버(Flask /predict) 클라이언트
+ *
+ * - 연결 풀(keep-alive) + 연결/응답 시간 제한
+ * - 세마포어로 동시 요청 수 제한 (느린 모델 서버가 요청 스레드를 모두 붙잡지 않도록)
+ * - 연속 실패 시 회로 차단, 일시적 오류(I/O, 5xx, 429)는 지수 백오프 + 지터로 재시도
+ *   (재시도 후에도 429 이면 서버 과부하로 보고 실패로 집계해 회로를 열 수 있게 한다)
+ * - hedge-delay 가 설정되면 첫 요청이 그 시간 안에 끝나지 않을 때 두 번째 요청을 보내 먼저 온 응답 사용
+ *   (먼저 성공한 응답이 오면 나머지 요청은 연결을 끊어 중단한다)
+ *
+ * app.analysis.engine=remote 일 때만 등록된다.
+ */
+@Service
+@ConditionalOnProperty(name = "app.analysis.engine", havingValue = "remote")
+@Slf4j
+public class AiModelClientService implements ImageAnalyzer {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    // 요청 팩토리가 만든 HTTP 요청을 현재 호출의 중단 수단에 연결 (callOnce 안에서만 설정)
+    private static final ThreadLocal<Abort> CURRENT_ABORT = new ThreadLocal<>();
+
+    private final String url;
+    private final String batchUrl;
+    private final long acquireTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long hedgeDelayMillis;
+
+    private final CloseableHttpClient httpClient;
+    private final RestClient restClient;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    // 헤지 요청용 (hedge-delay 가 0 이면 사용하지 않음)
+    private final ThreadPoolExecutor hedgeExecutor;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Counter retries;
+    private final Counter hedges;
+    private final Counter rejectedByCircuit;
+    private final Counter rejectedByLimit;
+
+    public AiModelClientService(MeterRegistry meterRegistry,
+                                WorkerThreadFactories workerThreadFactories,
+                                @Value("${app.analysis.remote.url:http://localhost:5000/predict}") String url,
+                                @Value("${app.analysis.remote.batch-url:http://localhost:5000/predict/batch}") String batchUrl,
+                                @Value("${app.analysis.remote.connect-timeout:1s}") Duration connectTimeout,
+                                @Value("${app.analysis.remote.read-timeout:5s}") Duration readTimeout,
+                                @Value("${app.analysis.remote.max-concurrency:16}") int maxConcurrency,
+                                @Value("${app.analysis.remote.acquire-timeout:200ms}") Duration acquireTimeout,
+                                @Value("${app.analysis.remote.max-attempts:3}") int maxAttempts,
+                                @Value("${app.analysis.remote.retry-backoff:100ms}") Duration retryBackoff,
+                                @Value("${app.analysis.remote.hedge-delay:0ms}") Duration hedgeDelay,
+                                @Value("${app.analysis.remote.failure-threshold:5}") int failureThreshold,
+                                @Value("${app.analysis.remote.open-duration:30s}") Duration openDuration) {
+        this.url = url;
+        this.batchUrl = batchUrl;
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(1, retryBackoff.toMillis());
+        this.hedgeDelayMillis = hedgeDelay.toMillis();
+        this.meterRegistry = meterRegistry;
+
+        // 헤지 요청까지 고려해 연결 풀은 동시 요청 한도만큼 확보
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConcurrency)
+                        .setMaxConnPerRoute(maxConcurrency)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                // 재시도는 아래에서 직접 처리
+                .disableAutomaticRetries()
+                .build();
+        this.restClient = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient) {
+                    @Override
+                    protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+                        ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+                        Abort abort = CURRENT_ABORT.get();
+                        if (abort != null && request instanceof HttpUriRequestBase cancellable) {
+                            abort.attach(cancellable);
+                        }
+                        return request;
+                    }
+                })
+                .build();
+
+        this.permits = new Semaphore(maxConcurrency);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration.toNanos(), System::nanoTime);
+
+        if (hedgeDelayMillis > 0) {
+            this.hedgeExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency * 2, 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    workerThreadFactories.blockingIo("ai-model-"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            this.hedgeExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.hedgeExecutor = null;
+        }
+
+        this.retries = Counter.builder("ai.model.retries")
+                .description("AI 서버 재시도 횟수")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("ai.model.hedges")
+                .description("AI 서버 헤지 요청 횟수")
+                .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("ai.model.rejected")
+                .tag("reason", "circuit_open")
+                .description("호출하지 않고 거절한 요청 수")
+                .register(meterRegistry);
+        this.rejectedByLimit = Counter.builder("ai.model.rejected")
+                .tag("reason", "concurrency_limit")
+                .description("호출하지 않고 거절한 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.model.in.flight", permits, p -> maxConcurrency - p.availablePermits())
+                .description("AI 서버 진행 중 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("ai.model.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("회로 상태 (0=CLOSED, 1=HALF_OPEN, 2=OPEN)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ImageAnalysis analyze(Path image) throws IOException {
+        return toImageAnalysis(predictPersonalColor(image));
+    }
+
+    /**
+     * 이미지를 AI 서버에 보내 예측 결과(JSON)를 받는다
+     *
+     * @throws AiModelUnavailableException 회로 차단 중이거나 동시 요청 한도 초과, 재시도 후에도 실패한 경우
+     */
+    public Map<String, Object> predictPersonalColor(Path image) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new FileSystemResource(image));
+        return execute(abort -> callOnce("single", url, body, abort));
+    }
+
+    /**
+     * 여러 이미지를 한 번의 호출로 예측 (응답의 predictions 는 요청 순서와 같아야 한다)
+     * 요청: multipart "files" 파트 N개 / 응답: {"predictions": [{...}, ...]}
+     */
+    public List<Map<String, Object>> predictPersonalColorBatch(List<Path> images) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        for (Path image : images) {
+            body.add("files", new FileSystemResource(image));
+        }
+        Map<String, Object> response = execute(abort -> callOnce("batch", batchUrl, body, abort));
+
+        Object predictions = response != null ? response.get("predictions") : null;
+        if (!(predictions instanceof List<?> list) || list.size() != images.size()) {
+            throw new RuntimeException("AI 서버 일괄 응답 형식 오류: 요청 " + images.size() + "건");
+        }
+        List<Map<String, Object>> results = new ArrayList<>(list.size());
+        for (Object prediction : list) {
+            if (!(prediction instanceof Map<?, ?> map)) {
+                throw new RuntimeException("AI 서버 일괄 응답 형식 오류: " + prediction);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = (Map<String, Object>) map;
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 회로 차단 → 재시도 → (헤지) → 단일 호출 순으로 감싼 실행
+     */
+    private <T> T execute(Function<Abort, T> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedByCircuit.increment();
+            throw new AiModelUnavailableException("AI 서버 응답이 불안정해 요청을 일시 차단했습니다.", null);
+        }
+
+        try {
+            T response = callWithRetry(call);
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (AiModelUnavailableException e) {
+            circuitBreaker.onIgnored();
+            throw e;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                // 재시도 후에도 429: 서버가 처리하지 못하는 상태이므로 실패로 반영
+                circuitBreaker.onFailure();
+                throw new AiModelUnavailableException("AI 서버가 요청을 처리할 수 없는 상태입니다.", e);
+            }
+            // 그 밖의 4xx 는 서버가 응답한 것이므로 회로 상태에는 성공으로 반영
+            circuitBreaker.onSuccess();
+            throw new RuntimeException("AI 서버 예측 실패: " + e.getStatusCode(), e);
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            throw new AiModelUnavailableException("AI 서버 예측 실패", e);
+        }
+    }
+
+    private <T> T callWithRetry(Function<Abort, T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return hedgedCall(call);
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                // 지수 백오프 + 전체 지터 (동시에 실패한 요청들이 한꺼번에 재시도하지 않도록)
+                long backoff = 1 + ThreadLocalRandom.current().nextLong(retryBackoffMillis << (attempt - 1));
+                retries.increment();
+                log.debug("AI 서버 재시도 {}/{} ({}ms 후): {}", attempt + 1, maxAttempts, backoff, e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    private <T> T hedgedCall(Function<Abort, T> call) {
+        if (hedgeExecutor == null) {
+            return call.apply(new Abort());
+        }
+
+        Abort primaryAbort = new Abort();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> call.apply(primaryAbort), hedgeExecutor);
+        try {
+            return primary.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 동시 요청 여유가 있을 때만 헤지 (과부하 상황에서 부하를 두 배로 만들지 않도록)
+            if (permits.availablePermits() == 0) {
+                return await(primary);
+            }
+            hedges.increment();
+            Abort hedgeAbort = new Abort();
+            CompletableFuture<T> hedge = CompletableFuture.supplyAsync(() -> call.apply(hedgeAbort), hedgeExecutor);
+            return await(firstSuccessful(primary, primaryAbort, hedge, hedgeAbort));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelUnavailableException("AI 서버 요청이 중단되었습니다.", e);
+        }
+    }
+
+    private Map<String, Object> callOnce(String type, String uri, MultiValueMap<String, Object> body, Abort abort) {
+        if (abort.isAborted()) {
+            throw new ResourceAccessException("AI 서버 요청 취소됨 (다른 요청이 먼저 성공)");
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelUnavailableException("AI 서버 요청이 중단되었습니다.", e);
+        }
+        if (!acquired) {
+            rejectedByLimit.increment();
+            throw new AiModelUnavailableException("AI 서버 동시 요청 한도를 초과했습니다.", null);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        CURRENT_ABORT.set(abort);
+        try {
+            return restClient.post()
+                    .uri(uri)
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(body)
+                    .retrieve()
+                    .body(RESPONSE_TYPE);
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } catch (HttpServerErrorException e) {
+            outcome = "server_error";
+            throw e;
+        } catch (RestClientException e) {
+            outcome = abort.isAborted() ? "cancelled" : "io_error";
+            throw e;
+        } finally {
+            CURRENT_ABORT.remove();
+            permits.release();
+            requestTimer(type, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer requestTimer(String type, String outcome) {
+        return requestTimers.computeIfAbsent(type + ":" + outcome, key -> Timer.builder("ai.model.requests")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .description("AI 서버 요청 1회 지연 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    private static boolean isRetryable(RestClientException e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || (e instanceof HttpClientErrorException clientError
+                && clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    /**
+     * 두 요청 중 먼저 성공한 응답 (둘 다 실패하면 나중 실패)
+     * 한쪽이 성공하면 다른 쪽 HTTP 요청은 중단한다 (future.cancel 로는 진행 중인 I/O 가 멈추지 않는다).
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, Abort firstAbort,
+                                                            CompletableFuture<T> second, Abort secondAbort) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        first.whenComplete((value, error) -> complete(result, failures, value, error, secondAbort));
+        second.whenComplete((value, error) -> complete(result, failures, value, error, firstAbort));
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, AtomicInteger failures, T value, Throwable error,
+                                     Abort other) {
+        if (error == null) {
+            if (result.complete(value)) {
+                other.abort();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelUnavailableException("AI 서버 요청이 중단되었습니다.", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RuntimeException runtime ? runtime : new RuntimeException(error);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelUnavailableException("AI 서버 요청이 중단되었습니다.", e);
+        }
+    }
+
+    /**
+     * 응답 예: {"color_type": "SPRING_WARM", "confidence": 0.87,
+     *          "dominant_colors": [{"hex": "#E8C4A8", "weight": 0.4}, "#6B4E3D"]}
+     * (camelCase 키도 허용)
+     */
+    static ImageAnalysis toImageAnalysis(Map<String, Object> response) {
+        if (response == null) {
+            throw new RuntimeException("AI 서버 응답이 비어 있습니다.");
+        }
+
+        Object type = response.getOrDefault("color_type", response.get("colorType"));
+        ColorAnalysis.ColorType colorType;
+        try {
+            colorType = ColorAnalysis.ColorType.valueOf(String.valueOf(type).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("AI 서버 응답 형식 오류: color_type=" + type, e);
+        }
+
+        float confidence = response.get("confidence") instanceof Number number ? number.floatValue() : 0f;
+
+        Object colors = response.getOrDefault("dominant_colors", response.get("dominantColors"));
+        List<DominantColor> dominantColors = new ArrayList<>();
+        if (colors instanceof List<?> list) {
+            for (Object color : list) {
+                // 저장 컬럼 길이에 맞춰 로컬 분석기와 같은 최대 개수까지만 사용
+                if (dominantColors.size() == DominantColorExtractor.MAX_COLORS) {
+                    break;
+                }
+                if (color instanceof String hex) {
+                    dominantColors.add(new DominantColor(hex, 1f / list.size()));
+                } else if (color instanceof Map<?, ?> map && map.get("hex") instanceof String hex) {
+                    float weight = map.get("weight") instanceof Number number ? number.floatValue() : 0f;
+                    dominantColors.add(new DominantColor(hex, weight));
+                }
+            }
+        }
+
+        return new ImageAnalysis(colorType, Math.max(0f, Math.min(1f, confidence)), dominantColors);
+    }
+
+    /**
+     * 호출 1회의 HTTP 요청 중단 수단 (요청이 만들어지기 전에 중단되면 만들어지는 즉시 중단)
+     */
+    private static final class Abort {
+        private HttpUriRequestBase request;
+        private boolean aborted;
+
+        synchronized void attach(HttpUriRequestBase request) {
+            this.request = request;
+            if (aborted) {
+                request.cancel();
+            }
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            if (request != null) {
+                request.cancel();
+            }
+        }
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdown();
+        }
+        httpClient.close();
+    }
+}
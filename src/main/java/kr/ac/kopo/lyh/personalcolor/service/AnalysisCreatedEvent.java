@@ -0,0 +1,10 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+
+/**
+ * 분석 결과 저장 이벤트 (트랜잭션 안에서 발행, 구독자는 커밋 후 처리)
+ */
+public record AnalysisCreatedEvent(Long userId, Gender gender, AnalysisSummary analysis) {
+}
@@ -0,0 +1,10 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+/**
+ * 분석 결과 삭제 이벤트 (트랜잭션 안에서 발행, 구독자는 커밋 후 처리)
+ */
+public record AnalysisDeletedEvent(Long userId, Long analysisId, Gender gender, ColorAnalysis.ColorType colorType) {
+}
@@ -0,0 +1,52 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 이미지 분석 작업 상태
+ */
+@Getter
+public class AnalysisJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final Long userId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    // 대기 시간 측정용
+    private final long submittedNanos = System.nanoTime();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Long analysisId;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    public AnalysisJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void markDone(Long analysisId) {
+        this.analysisId = analysisId;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
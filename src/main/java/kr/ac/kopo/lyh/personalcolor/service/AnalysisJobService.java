@@ -0,0 +1,146 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 요청 스레드와 분리된 이미지 분석 작업 실행기
+ * 작업자 수와 대기열 크기가 제한되어 있으며, 대기열이 가득 차면 즉시 거절한다.
+ * 작업 상태는 작업을 접수한 서버의 메모리에만 있으므로, 여러 서버 구성에서는
+ * 상태 조회(GET /upload/jobs/{jobId})가 접수한 서버로 가도록 고정 라우팅(sticky session)이 필요하다.
+ * 다른 서버로 가면 404 가 되며, 분석 결과 자체는 DB 에 저장되므로 /results 에서 확인할 수 있다.
+ */
+@Service
+@Slf4j
+public class AnalysisJobService {
+
+    private final ColorAnalysisService colorAnalysisService;
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter rejectedCounter;
+
+    public AnalysisJobService(ColorAnalysisService colorAnalysisService,
+                              FileStorageService fileStorageService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.analysis.jobs.pool-size:0}") int poolSize,
+                              @Value("${app.analysis.jobs.queue-capacity:100}") int queueCapacity,
+                              @Value("${app.analysis.jobs.retention:10m}") Duration retention) {
+        this.colorAnalysisService = colorAnalysisService;
+        this.fileStorageService = fileStorageService;
+        this.retention = retention;
+
+        int workers = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("analysis-worker-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("analysis.jobs.queue.depth", executor, e -> e.getQueue().size())
+                .description("대기 중인 분석 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("analysis.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("실행 중인 분석 작업 수")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("analysis.jobs.wait")
+                .description("분석 작업 대기열 대기 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("analysis.jobs.run")
+                .description("분석 작업 실행 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("analysis.jobs.rejected")
+                .description("대기열 초과로 거절된 분석 작업 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 분석 작업 등록 (즉시 반환)
+     *
+     * @throws AnalysisQueueFullException 대기열이 가득 찬 경우
+     */
+    public AnalysisJob submit(SessionUser user, String originalFileName, String storedFileName) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString(), user.id());
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> run(job, user, originalFileName, storedFileName));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            rejectedCounter.increment();
+            throw new AnalysisQueueFullException("분석 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.", e);
+        }
+
+        log.info("분석 작업 등록: jobId={}, 사용자={}, 대기열={}", job.getId(), user.email(), executor.getQueue().size());
+        return job;
+    }
+
+    /**
+     * 작업 조회 (다른 사용자의 작업은 조회 불가)
+     */
+    public AnalysisJob getJob(String jobId, Long userId) {
+        AnalysisJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            return null;
+        }
+        return job;
+    }
+
+    private void run(AnalysisJob job, SessionUser user, String originalFileName, String storedFileName) {
+        waitTimer.record(System.nanoTime() - job.getSubmittedNanos(), TimeUnit.NANOSECONDS);
+        job.markRunning();
+
+        long start = System.nanoTime();
+        try {
+            ColorAnalysis analysis = colorAnalysisService.analyzeImage(user, originalFileName, storedFileName);
+            job.markDone(analysis.getId());
+        } catch (Exception e) {
+            log.error("분석 작업 실패: jobId={}", job.getId(), e);
+            // 결과가 저장되지 않았으므로 업로드 시 늘린 파일 참조 해제
+            fileStorageService.releaseQuietly(storedFileName);
+            job.markFailed("분석 중 오류가 발생했습니다.");
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 완료 작업 정리
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.jobs.purge-interval:60000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,251 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 저장(write-behind) 대기 중인 분석 결과의 추가 전용 기록
+ *
+ * - 세그먼트 파일(analysis-{시작 순번}.log)에 한 줄에 한 건씩 탭 구분으로 기록
+ * - 세그먼트가 segment-bytes 를 넘으면 새 파일로 넘어가고, 모든 기록이 DB 에 저장된 세그먼트는 삭제
+ * - 재시작 시 남은 세그먼트를 읽어 저장되지 않은 결과를 복구 (마지막 줄이 잘렸으면 무시)
+ */
+@Slf4j
+public class AnalysisJournal {
+
+    public record Entry(long seq, ColorAnalysis analysis) {
+    }
+
+    private static final String PREFIX = "analysis-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    // 시작 순번 → 세그먼트 파일 (마지막 항목이 현재 기록 중인 세그먼트)
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private long channelSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AnalysisJournal(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * 남아 있는 모든 기록 (순번 순)
+     */
+    public List<Entry> recover() throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            segments.clear();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+                }
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            for (Path file : segments.values()) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Entry entry = parse(line);
+                        if (entry == null) {
+                            log.warn("분석 결과 기록 손상 줄 무시: {}", file.getFileName());
+                            continue;
+                        }
+                        entries.add(entry);
+                    }
+                }
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 모든 세그먼트 삭제 (복구한 결과를 DB 에 저장한 뒤)
+     */
+    public void clear() throws IOException {
+        lock.lock();
+        try {
+            closeChannel();
+            for (Path file : segments.values()) {
+                Files.deleteIfExists(file);
+            }
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(long seq, ColorAnalysis analysis) throws IOException {
+        lock.lock();
+        try {
+            if (channel == null || channelSize >= segmentBytes) {
+                roll(seq);
+            }
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(format(seq, analysis));
+            while (buffer.hasRemaining()) {
+                channelSize += channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 순번 persistedSeq 까지 DB 에 저장되었음을 알림 → 전부 저장된 이전 세그먼트 삭제
+     */
+    public void release(long persistedSeq) {
+        lock.lock();
+        try {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                long nextStart = segments.higherKey(oldest.getKey());
+                if (nextStart - 1 > persistedSeq) {
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(oldest.getValue());
+                } catch (IOException e) {
+                    log.warn("분석 결과 기록 세그먼트 삭제 실패: {}", oldest.getValue(), e);
+                    return;
+                }
+                segments.pollFirstEntry();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                log.warn("분석 결과 기록 닫기 실패", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll(long startSeq) throws IOException {
+        closeChannel();
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, startSeq, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelSize = channel.size();
+        segments.put(startSeq, file);
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // 순번, ID, 사용자 ID, 원본 파일명, 저장 파일명, 컬러 타입, 설명, 대표 색상, 신뢰도, 분석 시각
+    private static String format(long seq, ColorAnalysis analysis) {
+        return seq + "\t" + analysis.getId() + "\t" + analysis.getUser().getId()
+                + "\t" + escape(analysis.getOriginalFileName())
+                + "\t" + escape(analysis.getStoredFileName())
+                + "\t" + analysis.getColorType().name()
+                + "\t" + escape(analysis.getDescription())
+                + "\t" + escape(analysis.getDominantColors())
+                + "\t" + (analysis.getConfidence() != null ? analysis.getConfidence().toString() : "\\N")
+                + "\t" + analysis.getAnalyzedAt() + "\n";
+    }
+
+    private static Entry parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 10) {
+            return null;
+        }
+        try {
+            ColorAnalysis analysis = ColorAnalysis.builder()
+                    .id(Long.parseLong(fields[1]))
+                    .user(User.builder().id(Long.parseLong(fields[2])).build())
+                    .originalFileName(unescape(fields[3]))
+                    .storedFileName(unescape(fields[4]))
+                    .colorType(ColorAnalysis.ColorType.valueOf(fields[5]))
+                    .description(unescape(fields[6]))
+                    .dominantColors(unescape(fields[7]))
+                    .confidence("\\N".equals(fields[8]) ? null : Float.parseFloat(fields[8]))
+                    .analyzedAt(LocalDateTime.parse(fields[9]))
+                    .build();
+            return new Entry(Long.parseLong(fields[0]), analysis);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if ("\\N".equals(value)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
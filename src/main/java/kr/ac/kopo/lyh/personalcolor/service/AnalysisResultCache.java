@@ -0,0 +1,38 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 이미지 내용 해시 → 이전 분석 결과 캐시 (LRU, 크기 제한)
+ * 같은 사진을 다시 올리면 분석기를 거치지 않고 결과를 재사용한다.
+ */
+@Component
+public class AnalysisResultCache {
+
+    public record Entry(ColorAnalysis.ColorType colorType, float confidence, String dominantColors) {
+    }
+
+    private final Map<String, Entry> entries;
+
+    public AnalysisResultCache(@Value("${app.analysis.cache.max-entries:1000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Entry get(String contentHash) {
+        return entries.get(contentHash);
+    }
+
+    public synchronized void put(String contentHash, Entry entry) {
+        entries.put(contentHash, entry);
+    }
+}
@@ -0,0 +1,288 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.JobLock;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisRollupRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.JobLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 분석 건수·컬러 타입 비율·평균 신뢰도의 시간 구간별 집계
+ *
+ * 저장 이벤트를 커밋 후 (시간 구간, 컬러 타입) 단위 변경분으로 모았다가 주기적으로 analysis_rollup 에 더한다.
+ * 기간 조회는 원본 행 대신 집계 구간만 읽어 합치므로 1년 범위도 수천 행 이내로 끝난다.
+ * 시간 단위 구간은 보관 기간(hourly-retention)이 지나면 일 단위로 압축된다.
+ * 초기 구성과 압축은 job_lock 행을 잠근 트랜잭션에서 수행해 여러 서버에서 동시에 돌지 않게 한다
+ * (변경분 반영은 UPDATE ... + ? 라 잠금 없이 함께 수행해도 된다).
+ *
+ * 집계 대상은 수행된 분석 건수이므로 사용자가 결과를 삭제해도 빼지 않는다.
+ */
+@Service
+@Slf4j
+public class AnalysisRollupService {
+
+    // job_lock 행 이름 (초기 구성·압축 공용)
+    private static final String LOCK_NAME = "analysis-rollup";
+
+    private record BucketKey(LocalDateTime start, ColorAnalysis.ColorType colorType) {
+    }
+
+    private record Delta(long count, double confidenceSum, long confidenceCount) {
+
+        static Delta of(Float confidence) {
+            return confidence != null ? new Delta(1, confidence, 1) : new Delta(1, 0, 0);
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, confidenceSum + other.confidenceSum,
+                    confidenceCount + other.confidenceCount);
+        }
+    }
+
+    private final ColorAnalysisRepository colorAnalysisRepository;
+    private final AnalysisRollupRepository rollupRepository;
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration hourlyRetention;
+    private final boolean backfillOnStartup;
+
+    // 아직 DB 에 반영하지 않은 시간 구간별 변경분 (키 단위 compute/remove 로 유실 없이 교체)
+    private final ConcurrentHashMap<BucketKey, Delta> pending = new ConcurrentHashMap<>();
+    private volatile boolean lockRowReady;
+
+    public AnalysisRollupService(ColorAnalysisRepository colorAnalysisRepository,
+                                 AnalysisRollupRepository rollupRepository,
+                                 JobLockRepository jobLockRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.rollup.hourly-retention:7d}") Duration hourlyRetention,
+                                 @Value("${app.rollup.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.colorAnalysisRepository = colorAnalysisRepository;
+        this.rollupRepository = rollupRepository;
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hourlyRetention = hourlyRetention;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * 집계 테이블이 비어 있으면 기존 분석 결과로 한 번 채운다 (요청 처리 시작 전)
+     * 동시에 기동한 다른 서버가 먼저 채웠으면 잠금을 얻은 뒤 비어 있지 않으므로 건너뛴다.
+     */
+    @PostConstruct
+    public void backfill() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        long start = System.nanoTime();
+        ensureLockRow();
+        Integer filled = transactionTemplate.execute(status -> {
+            lock();
+            if (rollupRepository.count() > 0) {
+                return null;
+            }
+            Map<BucketKey, Delta> buckets = new HashMap<>();
+            try (Stream<Object[]> rows = colorAnalysisRepository.streamRollupSource()) {
+                rows.forEach(row -> {
+                    LocalDateTime analyzedAt = (LocalDateTime) row[2];
+                    if (analyzedAt != null) {
+                        buckets.merge(new BucketKey(analyzedAt.truncatedTo(ChronoUnit.HOURS),
+                                (ColorAnalysis.ColorType) row[0]), Delta.of((Float) row[1]), Delta::plus);
+                    }
+                });
+            }
+
+            List<AnalysisRollup> rollups = new ArrayList<>(buckets.size());
+            buckets.forEach((key, delta) -> rollups.add(new AnalysisRollup(AnalysisRollup.Granularity.HOURLY,
+                    key.start(), key.colorType(), delta.count(), delta.confidenceSum(), delta.confidenceCount())));
+            rollupRepository.saveAll(rollups);
+            return rollups.size();
+        });
+        if (filled == null) {
+            return;
+        }
+        compact();
+
+        log.info("분석 집계 초기 구성 완료: 시간 구간 {}개, {}ms", filled, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreated(AnalysisCreatedEvent event) {
+        LocalDateTime analyzedAt = event.analysis().analyzedAt();
+        if (analyzedAt == null || event.analysis().colorType() == null) {
+            return;
+        }
+        pending.merge(new BucketKey(analyzedAt.truncatedTo(ChronoUnit.HOURS), event.analysis().colorType()),
+                Delta.of(event.analysis().confidence()), Delta::plus);
+    }
+
+    /**
+     * 모인 변경분을 시간 구간 행에 반영
+     * 실패한 변경분은 다시 합쳐 다음 주기에 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${app.rollup.flush-interval:10000}")
+    public void flush() {
+        for (BucketKey key : pending.keySet()) {
+            Delta delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                int updated = rollupRepository.addToBucket(AnalysisRollup.Granularity.HOURLY, key.start(),
+                        key.colorType(), delta.count(), delta.confidenceSum(), delta.confidenceCount());
+                if (updated == 0) {
+                    rollupRepository.save(new AnalysisRollup(AnalysisRollup.Granularity.HOURLY, key.start(),
+                            key.colorType(), delta.count(), delta.confidenceSum(), delta.confidenceCount()));
+                }
+            } catch (RuntimeException e) {
+                pending.merge(key, delta, Delta::plus);
+                log.warn("분석 집계 반영 실패: {} {}, {}", key.start(), key.colorType(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 시간 단위 구간을 일 단위 구간으로 합치고 삭제 (한 트랜잭션)
+     * 잠금을 기다린 다른 서버는 이미 삭제된 구간을 다시 읽지 않으므로 두 번 더해지지 않는다.
+     * 읽은 행만 삭제해 그 사이 늦게 반영된 과거 시간 구간은 다음 압축에서 합친다.
+     */
+    @Scheduled(fixedDelayString = "${app.rollup.compact-interval:3600000}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(hourlyRetention).truncatedTo(ChronoUnit.DAYS);
+        ensureLockRow();
+        Integer compacted = transactionTemplate.execute(status -> {
+            lock();
+            List<AnalysisRollup> hourly = rollupRepository.findByGranularityBefore(
+                    AnalysisRollup.Granularity.HOURLY, cutoff);
+            if (hourly.isEmpty()) {
+                return 0;
+            }
+
+            Map<BucketKey, Delta> daily = new HashMap<>();
+            for (AnalysisRollup rollup : hourly) {
+                daily.merge(new BucketKey(rollup.getBucketStart().truncatedTo(ChronoUnit.DAYS), rollup.getColorType()),
+                        new Delta(rollup.getAnalysisCount(), rollup.getConfidenceSum(), rollup.getConfidenceCount()),
+                        Delta::plus);
+            }
+            daily.forEach((key, delta) -> {
+                AnalysisRollup.Key id = new AnalysisRollup.Key(AnalysisRollup.Granularity.DAILY, key.start(), key.colorType());
+                AnalysisRollup rollup = rollupRepository.findById(id).orElseGet(() -> new AnalysisRollup(
+                        AnalysisRollup.Granularity.DAILY, key.start(), key.colorType(), 0L, 0.0, 0L));
+                rollup.setAnalysisCount(rollup.getAnalysisCount() + delta.count());
+                rollup.setConfidenceSum(rollup.getConfidenceSum() + delta.confidenceSum());
+                rollup.setConfidenceCount(rollup.getConfidenceCount() + delta.confidenceCount());
+                rollupRepository.save(rollup);
+            });
+            rollupRepository.deleteAll(hourly);
+            rollupRepository.flush();
+            return hourly.size();
+        });
+
+        if (compacted != null && compacted > 0) {
+            log.info("분석 집계 압축: 시간 구간 {}개 → 일 단위 ({} 이전)", compacted, cutoff.toLocalDate());
+        }
+    }
+
+    /**
+     * 기간 [from, to) 의 분석 추이
+     * 구간 경계는 집계 단위로 맞춰진다 (보관 기간 이내는 시간 단위, 그 이전은 일 단위).
+     * 반영 주기(flush-interval) 이내의 최근 결과는 아직 포함되지 않을 수 있다.
+     *
+     * @param granularity 응답 구간 단위 (HOURLY 로 요청해도 압축된 기간은 일 단위 구간으로 응답)
+     */
+    public AnalysisTrend getTrend(LocalDateTime from, LocalDateTime to, AnalysisRollup.Granularity granularity) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("조회 시작 시각은 종료 시각보다 이전이어야 합니다.");
+        }
+
+        TreeMap<LocalDateTime, Accumulator> buckets = new TreeMap<>();
+        Accumulator overall = new Accumulator();
+        for (AnalysisRollup rollup : rollupRepository.findByRange(from, to)) {
+            LocalDateTime start = granularity == AnalysisRollup.Granularity.DAILY
+                    ? rollup.getBucketStart().truncatedTo(ChronoUnit.DAYS)
+                    : rollup.getBucketStart();
+            buckets.computeIfAbsent(start, key -> new Accumulator()).add(rollup);
+            overall.add(rollup);
+        }
+
+        List<AnalysisTrend.Bucket> result = new ArrayList<>(buckets.size());
+        buckets.forEach((start, accumulator) -> result.add(new AnalysisTrend.Bucket(start,
+                accumulator.count, accumulator.byColorType(), accumulator.averageConfidence())));
+        return new AnalysisTrend(from, to, granularity, overall.count, overall.byColorType(),
+                overall.averageConfidence(), result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // 현재 트랜잭션이 끝날 때까지 집계 작업 잠금
+    private void lock() {
+        jobLockRepository.findForUpdate(LOCK_NAME)
+                .orElseThrow(() -> new IllegalStateException("집계 잠금 행을 찾을 수 없습니다."));
+    }
+
+    // 잠금 행이 없으면 트랜잭션 밖에서 먼저 추가 (동시에 기동한 다른 서버가 먼저 추가했으면 그 행을 사용)
+    private void ensureLockRow() {
+        if (lockRowReady) {
+            return;
+        }
+        if (!jobLockRepository.existsById(LOCK_NAME)) {
+            try {
+                jobLockRepository.saveAndFlush(new JobLock(LOCK_NAME));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("집계 잠금 행이 이미 추가됨");
+            }
+        }
+        lockRowReady = true;
+    }
+
+    private static final class Accumulator {
+        private final long[] counts = new long[ColorAnalysis.ColorType.values().length];
+        private long count;
+        private double confidenceSum;
+        private long confidenceCount;
+
+        void add(AnalysisRollup rollup) {
+            counts[rollup.getColorType().ordinal()] += rollup.getAnalysisCount();
+            count += rollup.getAnalysisCount();
+            confidenceSum += rollup.getConfidenceSum();
+            confidenceCount += rollup.getConfidenceCount();
+        }
+
+        Map<ColorAnalysis.ColorType, Long> byColorType() {
+            Map<ColorAnalysis.ColorType, Long> result = new EnumMap<>(ColorAnalysis.ColorType.class);
+            for (ColorAnalysis.ColorType colorType : ColorAnalysis.ColorType.values()) {
+                result.put(colorType, counts[colorType.ordinal()]);
+            }
+            return result;
+        }
+
+        Double averageConfidence() {
+            return confidenceCount > 0 ? confidenceSum / confidenceCount : null;
+        }
+    }
+}
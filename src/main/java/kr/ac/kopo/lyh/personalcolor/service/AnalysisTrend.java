@@ -0,0 +1,27 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 기간별 분석 추이 (구간 목록 + 기간 전체 합계)
+ * averageConfidence 는 신뢰도가 있는 결과가 없으면 null
+ */
+public record AnalysisTrend(LocalDateTime from,
+                            LocalDateTime to,
+                            AnalysisRollup.Granularity granularity,
+                            long total,
+                            Map<ColorAnalysis.ColorType, Long> byColorType,
+                            Double averageConfidence,
+                            List<Bucket> buckets) {
+
+    public record Bucket(LocalDateTime start,
+                         long total,
+                         Map<ColorAnalysis.ColorType, Long> byColorType,
+                         Double averageConfidence) {
+    }
+}
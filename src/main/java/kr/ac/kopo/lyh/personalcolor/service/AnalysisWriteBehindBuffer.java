@@ -0,0 +1,477 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisQueueFullException;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 분석 결과 지연 저장(write-behind) 버퍼 (app.analysis.write-behind.enabled=true 일 때만 사용)
+ *
+ * - 요청 스레드는 ID(엔티티와 같은 시퀀스)만 할당받아 버퍼에 넣고 바로 응답한다. 저장 전까지 결과 화면은 메모리에서 조회한다.
+ * - 전용 스레드가 batch-size 건 또는 flush-interval 마다 JDBC 배치 INSERT 한 번으로 저장한다.
+ * - 버퍼가 capacity 건으로 가득 차면 offer-timeout 만큼 기다린 뒤 거절한다 (업로드는 503 + Retry-After).
+ * - durability=journal 이면 버퍼에 넣기 전에 로컬 기록 파일에 남겨 재시작 시 복구한다
+ *   (journal-fsync 는 건마다 디스크 동기화까지 기다린다. none 이면 비정상 종료 시 저장 전 결과를 잃는다).
+ * - 저장 이벤트(AnalysisCreatedEvent)는 DB 에 저장된 뒤 발행한다. 제약 조건 위반(탈퇴한 사용자 등)으로 버린 결과는
+ *   통계·집계·최근 결과 캐시에 반영되지 않는다 (사용자는 이미 성공 응답을 받았으므로 결과 화면에서 사라진다).
+ *   기록에서 복구한 결과는 사용자 성별이 없어 이벤트를 발행하지 않는다 (통계는 기동 시 재집계로 맞춘다).
+ * - 저장 전 결과는 접수한 서버의 메모리에만 있다. 여러 서버 구성에서 다른 서버로 간 결과 조회는
+ *   저장될 때까지(flush-interval 이내) 찾지 못하므로, 사용 시 결과 화면도 고정 라우팅(sticky session)이 필요하다.
+ */
+@Service
+@Slf4j
+public class AnalysisWriteBehindBuffer {
+
+    public enum Durability {
+        NONE, JOURNAL, JOURNAL_FSYNC
+    }
+
+    private record Pending(long seq, ColorAnalysis analysis, long enqueuedNanos) {
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO color_analysis (id, user_id, original_file_name, "
+            + "stored_file_name, color_type, description, dominant_colors, confidence, analyzed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 배치 저장 실패 시 재시도 간격 상한과, 건별 저장으로 전환하기 전 재시도 횟수
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5_000;
+    private static final int BATCH_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final boolean enabled;
+    private final Durability durability;
+    private final Path journalDir;
+    private final long journalSegmentBytes;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+
+    // 버퍼 자리: 저장이 끝나야 반환된다 (대기열에서 꺼낸 뒤 저장 중인 건도 자리를 차지)
+    private final Semaphore slots;
+    private final BlockingQueue<Pending> queue;
+    private final Map<Long, Pending> pendingById = new ConcurrentHashMap<>();
+    // 순번 할당·기록·대기열 추가 순서를 같게 유지 (기록 세그먼트 삭제 기준)
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private long lastSeq;
+
+    private final Counter flushedCounter;
+    private final Counter rejectedCounter;
+    private final Timer flushTimer;
+
+    private BeforeExecutionGenerator idGenerator;
+    private AnalysisJournal journal;
+    private Thread flusher;
+    private volatile boolean accepting;
+    private volatile long inFlightSince;
+
+    public AnalysisWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     FileStorageService fileStorageService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     EntityManagerFactory entityManagerFactory,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.analysis.write-behind.enabled:false}") boolean enabled,
+                                     @Value("${app.analysis.write-behind.durability:journal}") String durability,
+                                     @Value("${app.analysis.write-behind.journal-dir:data/analysis-journal}") String journalDir,
+                                     @Value("${app.analysis.write-behind.journal-segment-bytes:16777216}") long journalSegmentBytes,
+                                     @Value("${app.analysis.write-behind.capacity:10000}") int capacity,
+                                     @Value("${app.analysis.write-behind.batch-size:500}") int batchSize,
+                                     @Value("${app.analysis.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                     @Value("${app.analysis.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                     @Value("${app.analysis.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileStorageService = fileStorageService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.enabled = enabled;
+        this.durability = Durability.valueOf(durability.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.journalDir = Path.of(journalDir);
+        this.journalSegmentBytes = journalSegmentBytes;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.slots = new Semaphore(capacity);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("analysis.write-behind.depth", pendingById, Map::size)
+                .description("아직 DB 에 저장되지 않은 분석 결과 수")
+                .register(meterRegistry);
+        Gauge.builder("analysis.write-behind.lag", this, AnalysisWriteBehindBuffer::lagSeconds)
+                .description("저장되지 않은 가장 오래된 분석 결과의 대기 시간(초)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("analysis.write-behind.flushed")
+                .description("지연 저장된 분석 결과 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("analysis.write-behind.rejected")
+                .description("버퍼가 가득 차 거절된 분석 결과 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("analysis.write-behind.flush")
+                .description("배치 INSERT 한 번에 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 남은 기록 복구 후 저장 스레드 시작
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(ColorAnalysis.class).getGenerator();
+
+        if (durability != Durability.NONE) {
+            journal = new AnalysisJournal(journalDir, journalSegmentBytes, durability == Durability.JOURNAL_FSYNC);
+            try {
+                replay(journal.recover());
+                journal.clear();
+            } catch (IOException e) {
+                throw new RuntimeException("분석 결과 기록 복구 실패", e);
+            }
+        }
+
+        accepting = true;
+        flusher = new Thread(this::runFlusher, "analysis-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("분석 결과 지연 저장 사용: durability={}, batch-size={}, flush-interval={}",
+                durability, batchSize, flushInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 분석 결과를 버퍼에 넣고 ID·분석 시각을 채워 반환 (DB 저장은 나중에)
+     *
+     * @throws AnalysisQueueFullException offer-timeout 안에 버퍼 자리가 나지 않은 경우
+     */
+    public ColorAnalysis submit(ColorAnalysis analysis) {
+        if (!accepting) {
+            throw new AnalysisQueueFullException("분석 결과 저장을 받을 수 없는 상태입니다. 잠시 후 다시 시도해주세요.", null);
+        }
+        try {
+            if (!slots.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new AnalysisQueueFullException("분석 결과 저장 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisQueueFullException("분석 결과 저장 대기 중 중단되었습니다.", e);
+        }
+
+        try {
+            analysis.setId(nextId(analysis));
+            if (analysis.getAnalyzedAt() == null) {
+                analysis.setAnalyzedAt(LocalDateTime.now());
+            }
+            submitLock.lock();
+            try {
+                long seq = ++lastSeq;
+                if (journal != null) {
+                    journal.append(seq, analysis);
+                }
+                Pending pending = new Pending(seq, analysis, System.nanoTime());
+                pendingById.put(analysis.getId(), pending);
+                // 자리를 먼저 확보했으므로 실패하지 않는다
+                queue.add(pending);
+            } finally {
+                submitLock.unlock();
+            }
+            return analysis;
+        } catch (IOException e) {
+            slots.release();
+            throw new RuntimeException("분석 결과 기록 실패", e);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 아직 저장되지 않은 사용자 본인의 분석 결과 (없으면 null)
+     */
+    public AnalysisSummary find(Long analysisId, Long userId) {
+        Pending pending = pendingById.get(analysisId);
+        if (pending == null || !pending.analysis().getUser().getId().equals(userId)) {
+            return null;
+        }
+        return AnalysisSummary.of(pending.analysis());
+    }
+
+    public boolean isPending(Long analysisId) {
+        return pendingById.containsKey(analysisId);
+    }
+
+    /**
+     * 새 요청을 받지 않고 남은 결과를 모두 저장한 뒤 종료
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        accepting = false;
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!pendingById.isEmpty()) {
+            log.error("종료 시 저장하지 못한 분석 결과 {}건{}", pendingById.size(),
+                    journal != null ? " (다음 기동 시 기록에서 복구)" : "");
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private Long nextId(ColorAnalysis analysis) {
+        // 엔티티 저장과 같은 풀링 시퀀스 최적화기를 공유 (50개 단위로만 DB 조회)
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) idGenerator.generate((SharedSessionContractImplementor) session, analysis, null, EventType.INSERT);
+        }
+    }
+
+    private void runFlusher() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                inFlightSince = first.enqueuedNanos();
+                // 첫 건이 들어온 뒤 flush-interval 까지 모아서 한 번에 저장 (종료 중이면 기다리지 않음)
+                long deadline = first.enqueuedNanos() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !accepting) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                inFlightSince = 0;
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Pending> batch) throws InterruptedException {
+        List<ColorAnalysis> analyses = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            analyses.add(pending.analysis());
+        }
+
+        Set<Long> unsaved = Set.of();
+        long backoff = 100;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> insert(analyses));
+                analyses.forEach(this::publishCreated);
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= BATCH_ATTEMPTS) {
+                    // 한 건의 제약 조건 위반(탈퇴한 사용자 등)이 전체를 막지 않도록 건별 저장
+                    log.warn("분석 결과 배치 저장 {}회 실패, 건별 저장으로 전환: {}건", attempt, analyses.size(), e);
+                    unsaved = insertEach(analyses);
+                    break;
+                }
+                log.warn("분석 결과 배치 저장 실패 ({}회), {}ms 후 재시도", attempt, backoff, e);
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+
+        for (Pending pending : batch) {
+            if (!unsaved.contains(pending.analysis().getId())) {
+                pendingById.remove(pending.analysis().getId());
+            }
+        }
+        slots.release(batch.size());
+        flushedCounter.increment(batch.size() - unsaved.size());
+        // 저장하지 못한 건이 있으면 세그먼트를 남겨 다음 기동 시 복구
+        if (journal != null && unsaved.isEmpty()) {
+            journal.release(batch.get(batch.size() - 1).seq());
+        }
+    }
+
+    /**
+     * 건별 저장 (제약 조건 위반 건은 버림)
+     *
+     * @return 종료 중이라 저장하지 못한 분석 결과 ID
+     */
+    private Set<Long> insertEach(List<ColorAnalysis> analyses) throws InterruptedException {
+        Set<Long> unsaved = new HashSet<>();
+        for (ColorAnalysis analysis : analyses) {
+            long backoff = 100;
+            while (true) {
+                try {
+                    insert(List.of(analysis));
+                    publishCreated(analysis);
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    log.error("분석 결과 저장 불가로 버림: ID={}, 사용자={}", analysis.getId(), analysis.getUser().getId(), e);
+                    fileStorageService.releaseQuietly(analysis.getStoredFileName());
+                    break;
+                } catch (RuntimeException e) {
+                    if (!accepting) {
+                        log.error("분석 결과 저장 실패 (종료 중): ID={}", analysis.getId(), e);
+                        unsaved.add(analysis.getId());
+                        break;
+                    }
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+                }
+            }
+        }
+        return unsaved;
+    }
+
+    // 저장 후 통계·집계·최근 결과 캐시에 반영 (저장 스레드에는 트랜잭션이 없어 구독자가 바로 처리)
+    // 구독자 오류가 이미 저장된 결과의 재저장으로 이어지지 않도록 여기서 끝낸다
+    private void publishCreated(ColorAnalysis analysis) {
+        User user = analysis.getUser();
+        try {
+            eventPublisher.publishEvent(new AnalysisCreatedEvent(user.getId(), user.getGender(),
+                    AnalysisSummary.of(analysis)));
+        } catch (RuntimeException e) {
+            log.warn("분석 결과 저장 이벤트 처리 실패: ID={}", analysis.getId(), e);
+        }
+    }
+
+    private void insert(List<ColorAnalysis> analyses) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, analyses, analyses.size(), (ps, analysis) -> {
+                    ps.setLong(1, analysis.getId());
+                    ps.setLong(2, analysis.getUser().getId());
+                    ps.setString(3, analysis.getOriginalFileName());
+                    ps.setString(4, analysis.getStoredFileName());
+                    ps.setString(5, analysis.getColorType().name());
+                    ps.setString(6, analysis.getDescription());
+                    ps.setString(7, analysis.getDominantColors());
+                    if (analysis.getConfidence() != null) {
+                        ps.setFloat(8, analysis.getConfidence());
+                    } else {
+                        ps.setNull(8, Types.FLOAT);
+                    }
+                    ps.setObject(9, analysis.getAnalyzedAt());
+                }));
+    }
+
+    /**
+     * 기록에 남은 결과 중 DB 에 없는 것만 저장 (저장 직후 세그먼트를 지우기 전에 종료된 경우 대비)
+     * DB 오류로 복구하지 못하면 기동을 중단하고 기록은 그대로 둔다.
+     */
+    private void replay(List<AnalysisJournal.Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        int restored = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<AnalysisJournal.Entry> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            Object[] ids = chunk.stream().map(entry -> entry.analysis().getId()).toArray();
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT id FROM color_analysis WHERE id IN (" + placeholders + ")", Long.class, ids));
+
+            List<ColorAnalysis> missing = new ArrayList<>();
+            for (AnalysisJournal.Entry entry : chunk) {
+                if (existing.add(entry.analysis().getId())) {
+                    missing.add(entry.analysis());
+                }
+            }
+            if (missing.isEmpty()) {
+                continue;
+            }
+            try {
+                insert(missing);
+            } catch (DataIntegrityViolationException e) {
+                for (ColorAnalysis analysis : missing) {
+                    try {
+                        insert(List.of(analysis));
+                    } catch (DataIntegrityViolationException skipped) {
+                        log.error("복구할 수 없는 분석 결과 버림: ID={}, 사용자={}",
+                                analysis.getId(), analysis.getUser().getId(), skipped);
+                        fileStorageService.releaseQuietly(analysis.getStoredFileName());
+                    }
+                }
+            }
+            restored += missing.size();
+        }
+        log.info("분석 결과 기록 복구: {}건 중 {}건 저장", entries.size(), restored);
+    }
+
+    private double lagSeconds() {
+        long since = inFlightSince;
+        if (since == 0) {
+            Pending head = queue.peek();
+            if (head == null) {
+                return 0;
+            }
+            since = head.enqueuedNanos();
+        }
+        return (System.nanoTime() - since) / 1e9;
+    }
+}
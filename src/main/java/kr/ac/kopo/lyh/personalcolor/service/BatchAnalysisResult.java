@@ -0,0 +1,31 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.util.List;
+
+/**
+ * 여러 장 일괄 분석 결과
+ *
+ * @param images              이미지별 결과 (요청 순서 유지)
+ * @param consensusType       신뢰도 가중 투표로 정한 최종 퍼스널 컬러 (성공한 이미지가 없으면 null)
+ * @param consensusConfidence 전체 이미지 중 최종 결과를 지지하는 신뢰도 비율 (0.0 ~ 1.0)
+ * @param representative      최종 결과를 가장 높은 신뢰도로 지지한 분석 결과
+ */
+public record BatchAnalysisResult(List<ImageResult> images,
+                                  ColorAnalysis.ColorType consensusType,
+                                  float consensusConfidence,
+                                  ColorAnalysis representative) {
+
+    /**
+     * @param originalFileName 원본 파일명
+     * @param analysis         저장된 분석 결과 (실패 시 null)
+     * @param error            실패 사유 (성공 시 null)
+     */
+    public record ImageResult(String originalFileName, ColorAnalysis analysis, String error) {
+
+        public boolean isSuccess() {
+            return analysis != null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 사람의 여러 사진을 한 번에 저장·분석하고 최종 퍼스널 컬러를 합의로 결정
+ */
+@Service
+@Slf4j
+public class BatchAnalysisService {
+
+    private final FileStorageService fileStorageService;
+    private final ColorAnalysisService colorAnalysisService;
+    private final ThreadPoolExecutor executor;
+    private final int maxFiles;
+
+    public BatchAnalysisService(FileStorageService fileStorageService,
+                                ColorAnalysisService colorAnalysisService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.analysis.batch.max-files:10}") int maxFiles,
+                                @Value("${app.analysis.batch.pool-size:0}") int poolSize,
+                                @Value("${app.analysis.batch.queue-capacity:50}") int queueCapacity) {
+        this.fileStorageService = fileStorageService;
+        this.colorAnalysisService = colorAnalysisService;
+        this.maxFiles = maxFiles;
+
+        int workers = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        // 대기열이 가득 차면 요청 스레드가 직접 처리하여 자연스럽게 속도를 늦춘다
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("batch-analysis-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // executor.queued / executor.active / executor.completed {name=batch-analysis}
+        new ExecutorServiceMetrics(executor, "batch-analysis", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public BatchAnalysisResult analyzeBatch(SessionUser user, List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("업로드된 파일이 없습니다.");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxFiles + "장까지 업로드할 수 있습니다.");
+        }
+
+        // 저장 + 분석은 이미지별로 병렬 수행
+        List<CompletableFuture<ColorAnalysis>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> storeAndAnalyze(user, file), executor));
+        }
+
+        ColorAnalysis[] analyses = new ColorAnalysis[files.size()];
+        String[] errors = new String[files.size()];
+        List<ColorAnalysis> analyzed = new ArrayList<>(files.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                analyses[i] = futures.get(i).join();
+                analyzed.add(analyses[i]);
+            } catch (CompletionException e) {
+                errors[i] = e.getCause() instanceof IllegalArgumentException
+                        ? e.getCause().getMessage()
+                        : "분석 중 오류가 발생했습니다.";
+                log.warn("일괄 분석 중 이미지 실패: {}", files.get(i).getOriginalFilename(), e.getCause());
+            }
+        }
+
+        // 결과 저장은 한 트랜잭션으로 (저장 후 같은 인스턴스에 ID가 채워짐)
+        if (!analyzed.isEmpty()) {
+            try {
+                colorAnalysisService.saveAnalyses(analyzed);
+            } catch (RuntimeException e) {
+                // 저장되지 않은 결과의 파일 참조 해제
+                for (ColorAnalysis analysis : analyzed) {
+                    fileStorageService.releaseQuietly(analysis.getStoredFileName());
+                }
+                throw e;
+            }
+        }
+
+        List<BatchAnalysisResult.ImageResult> images = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            images.add(new BatchAnalysisResult.ImageResult(files.get(i).getOriginalFilename(), analyses[i], errors[i]));
+        }
+
+        BatchAnalysisResult result = consensus(images, analyzed);
+        log.info("일괄 분석 완료: 사용자={}, 요청={}장, 성공={}장, 결과={}",
+                user.email(), files.size(), analyzed.size(), result.consensusType());
+        return result;
+    }
+
+    private ColorAnalysis storeAndAnalyze(SessionUser user, MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+        }
+
+        String storedFileName = fileStorageService.storeFile(file);
+        try {
+            return colorAnalysisService.analyze(user, file.getOriginalFilename(), storedFileName);
+        } catch (RuntimeException e) {
+            fileStorageService.releaseQuietly(storedFileName);
+            throw e;
+        }
+    }
+
+    /**
+     * 신뢰도 가중 투표
+     * 합의 신뢰도 = 최종 결과를 지지한 이미지들의 신뢰도 합 / 성공한 이미지 수
+     * (이미지 간 결과가 엇갈릴수록 낮아진다)
+     */
+    static BatchAnalysisResult consensus(List<BatchAnalysisResult.ImageResult> images, List<ColorAnalysis> analyzed) {
+        if (analyzed.isEmpty()) {
+            return new BatchAnalysisResult(images, null, 0f, null);
+        }
+
+        ColorAnalysis.ColorType[] types = ColorAnalysis.ColorType.values();
+        float[] scores = new float[types.length];
+        for (ColorAnalysis analysis : analyzed) {
+            scores[analysis.getColorType().ordinal()] += analysis.getConfidence();
+        }
+
+        int winner = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[winner]) {
+                winner = i;
+            }
+        }
+
+        ColorAnalysis representative = null;
+        for (ColorAnalysis analysis : analyzed) {
+            if (analysis.getColorType() == types[winner]
+                    && (representative == null || analysis.getConfidence() > representative.getConfidence())) {
+                representative = analysis;
+            }
+        }
+
+        return new BatchAnalysisResult(images, types[winner], scores[winner] / analyzed.size(), representative);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 연속 실패 기반 회로 차단기
+ *
+ * - CLOSED    : 정상 호출. 연속 실패가 기준에 도달하면 OPEN
+ * - OPEN      : 대기 시간 동안 호출 즉시 거절
+ * - HALF_OPEN : 대기 후 시험 호출 하나만 허용, 성공하면 CLOSED / 실패하면 다시 OPEN
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 호출 허용 여부 (true 이면 결과를 onSuccess/onFailure/onIgnored 중 하나로 알려야 한다)
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * 서버 상태와 무관한 이유로 호출하지 못한 경우 (시험 호출 자리만 반납)
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
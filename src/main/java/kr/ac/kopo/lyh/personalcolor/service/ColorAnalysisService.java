@@ -1,17 +1,29 @@
 package kr.ac.kopo.lyh.personalcolor.service;
 
+import jakarta.persistence.EntityManager;
+import kr.ac.kopo.lyh.personalcolor.analysis.DominantColorsCodec;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalysis;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalyzer;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
 import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
 import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,91 +31,270 @@ import java.util.Random;
 @Slf4j
 public class ColorAnalysisService {
 
+    // 대량 저장 시 flush/clear 단위 (hibernate.jdbc.batch_size 의 배수)
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final ColorAnalysisRepository colorAnalysisRepository;
-    private final Random random = new Random();
+    private final FileStorageService fileStorageService;
+    private final ImageAnalyzer imageAnalyzer;
+    private final DominantColorsCodec dominantColorsCodec;
+    private final AnalysisResultCache analysisResultCache;
+    private final LatestAnalysisCache latestAnalysisCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final AnalysisWriteBehindBuffer writeBehindBuffer;
+    private final UploadPipelineMetrics uploadPipelineMetrics;
+
+    /**
+     * 이미지 분석 수행 후 결과 저장
+     * 지연 저장 모드에서는 ID 만 할당받아 버퍼에 넣고, DB 저장은 AnalysisWriteBehindBuffer 가 모아서 한다.
+     * 분석하는 동안 DB 연결을 잡고 있지 않도록 트랜잭션 없이 실행한다.
+     *
+     * @throws kr.ac.kopo.lyh.personalcolor.exception.AnalysisQueueFullException 지연 저장 버퍼가 가득 찬 경우
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ColorAnalysis analyzeImage(SessionUser user, String originalFileName, String storedFileName) {
+        ColorAnalysis analysis = uploadPipelineMetrics.time(UploadPipelineMetrics.Stage.ANALYZE,
+                () -> analyze(user, originalFileName, storedFileName));
+        ColorAnalysis savedAnalysis = uploadPipelineMetrics.time(UploadPipelineMetrics.Stage.PERSIST,
+                () -> writeBehindBuffer.isEnabled()
+                        ? writeBehindBuffer.submit(analysis)
+                        // 시퀀스 ID 는 INSERT 를 flush 시점으로 미루므로 분석 시각(@CreationTimestamp)을 이벤트에 담기 전에 반영
+                        : colorAnalysisRepository.saveAndFlush(analysis));
+        // 지연 저장 결과는 DB 에 저장된 뒤 AnalysisWriteBehindBuffer 가 발행한다 (저장하지 못하고 버린 결과가 통계에 남지 않도록)
+        if (!writeBehindBuffer.isEnabled()) {
+            eventPublisher.publishEvent(new AnalysisCreatedEvent(user.id(), user.gender(),
+                    AnalysisSummary.of(savedAnalysis)));
+        }
+        log.info("이미지 분석 완료: 사용자={}, 결과={}, 신뢰도={}",
+                user.email(), savedAnalysis.getColorType().getDisplayName(), savedAnalysis.getConfidence());
+
+        return savedAnalysis;
+    }
 
     /**
-     * 이미지 분석 수행 (현재는 임시 랜덤 결과)
-     * 추후 실제 AI 분석 로직으로 대체
+     * 이미지 분석만 수행 (저장하지 않음)
+     * 설정된 분석기(로컬 CIELAB 분석 또는 외부 AI 모델)로 퍼스널 컬러를 판정하고 대표 색상을 추출
      */
-    public ColorAnalysis analyzeImage(User user, String originalFileName, String storedFileName) {
-        // TODO: 실제 이미지 분석 로직 구현
-        // 현재는 임시로 랜덤 결과 생성
-        ColorAnalysis.ColorType[] colorTypes = ColorAnalysis.ColorType.values();
-        ColorAnalysis.ColorType selectedType = colorTypes[random.nextInt(colorTypes.length)];
-
-        ColorAnalysis analysis = ColorAnalysis.builder()
-                .user(user)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ColorAnalysis analyze(SessionUser user, String originalFileName, String storedFileName) {
+        // 같은 내용의 이미지를 이미 분석했다면 결과 재사용
+        String contentHash = fileStorageService.contentHashOf(storedFileName);
+        AnalysisResultCache.Entry cached = contentHash != null ? analysisResultCache.get(contentHash) : null;
+        if (cached != null) {
+            log.debug("분석 결과 캐시 적중: 파일={}", storedFileName);
+            return buildAnalysis(user, originalFileName, storedFileName,
+                    cached.colorType(), cached.confidence(), cached.dominantColors());
+        }
+
+        ImageAnalysis result;
+        try {
+            result = imageAnalyzer.analyze(fileStorageService.getFilePath(storedFileName));
+        } catch (IOException e) {
+            log.error("이미지 분석 중 오류 발생: {}", storedFileName, e);
+            throw new RuntimeException("이미지 분석 실패", e);
+        }
+        ColorAnalysis.ColorType selectedType = result.colorType();
+        String dominantColors = dominantColorsCodec.encode(result.dominantColors());
+
+        if (contentHash != null) {
+            analysisResultCache.put(contentHash,
+                    new AnalysisResultCache.Entry(selectedType, result.confidence(), dominantColors));
+        }
+
+        return buildAnalysis(user, originalFileName, storedFileName, selectedType, result.confidence(), dominantColors);
+    }
+
+    private ColorAnalysis buildAnalysis(SessionUser user, String originalFileName, String storedFileName,
+                                        ColorAnalysis.ColorType colorType, float confidence, String dominantColors) {
+        return ColorAnalysis.builder()
+                .user(userReference(user))
                 .originalFileName(originalFileName)
                 .storedFileName(storedFileName)
-                .colorType(selectedType)
-                .description(selectedType.getDescription())
-                .confidence(0.75f + random.nextFloat() * 0.25f) // 75-100% 신뢰도
-                .dominantColors(generateSampleColors(selectedType))
+                .colorType(colorType)
+                .description(colorType.getDescription())
+                .confidence(confidence)
+                .dominantColors(dominantColors)
                 .build();
+    }
 
-        ColorAnalysis savedAnalysis = colorAnalysisRepository.save(analysis);
-        log.info("이미지 분석 완료: 사용자={}, 결과={}", user.getEmail(), selectedType.getDisplayName());
+    /**
+     * 세션 사용자 정보로 만든 User 참조 (저장 시 외래 키로만 쓰이며 비밀번호 등은 비어 있다)
+     * 분석마다 users 테이블을 다시 조회하지 않는다.
+     */
+    private static User userReference(SessionUser user) {
+        return User.builder()
+                .id(user.id())
+                .email(user.email())
+                .name(user.name())
+                .gender(user.gender())
+                .build();
+    }
 
-        return savedAnalysis;
+    /**
+     * 여러 분석 결과를 한 트랜잭션으로 저장
+     */
+    public List<ColorAnalysis> saveAnalyses(List<ColorAnalysis> analyses) {
+        List<ColorAnalysis> savedAnalyses = colorAnalysisRepository.saveAll(analyses);
+        // INSERT 가 JDBC 배치 한 번으로 전송됨
+        colorAnalysisRepository.flush();
+        for (ColorAnalysis analysis : savedAnalyses) {
+            User user = analysis.getUser();
+            eventPublisher.publishEvent(new AnalysisCreatedEvent(user.getId(), user.getGender(),
+                    AnalysisSummary.of(analysis)));
+        }
+        log.info("분석 결과 일괄 저장: {}건", savedAnalyses.size());
+        return savedAnalyses;
+    }
+
+    /**
+     * 새 분석 결과 대량 저장 (일괄 업로드·재분석 작업용)
+     * BULK_CHUNK_SIZE 건마다 flush(JDBC 배치 INSERT) 후 영속성 컨텍스트를 비워 메모리 사용량을 일정하게 유지한다.
+     * 저장한 엔티티는 반환 후 준영속 상태이다.
+     *
+     * @return 저장한 건수
+     */
+    public int bulkInsert(List<ColorAnalysis> analyses) {
+        long start = System.nanoTime();
+        List<ColorAnalysis> chunk = new ArrayList<>(Math.min(analyses.size(), BULK_CHUNK_SIZE));
+        for (ColorAnalysis analysis : analyses) {
+            if (analysis.getId() != null) {
+                throw new IllegalArgumentException("이미 저장된 분석 결과는 대량 저장할 수 없습니다.");
+            }
+            entityManager.persist(analysis);
+            chunk.add(analysis);
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                flushChunk(chunk);
+            }
+        }
+        flushChunk(chunk);
+        log.info("분석 결과 대량 저장: {}건, {}ms", analyses.size(), (System.nanoTime() - start) / 1_000_000);
+        return analyses.size();
+    }
+
+    private void flushChunk(List<ColorAnalysis> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (ColorAnalysis analysis : chunk) {
+            User user = analysis.getUser();
+            eventPublisher.publishEvent(new AnalysisCreatedEvent(user.getId(), user.getGender(),
+                    AnalysisSummary.of(analysis)));
+        }
+        entityManager.clear();
+        chunk.clear();
     }
 
     /**
-     * 사용자의 분석 결과 목록 조회
+     * 사용자의 전체 분석 결과를 최신순으로 한 건씩 전달 (내보내기 등 대량 목록용)
+     * 결과를 한꺼번에 메모리에 올리지 않고 fetch size 단위로 스트리밍한다.
+     *
+     * @return 전달한 건수
      */
     @Transactional(readOnly = true)
-    public List<ColorAnalysis> getUserAnalyses(User user) {
-        return colorAnalysisRepository.findByUserOrderByAnalyzedAtDesc(user);
+    public long forEachHistoryItem(SessionUser user, Consumer<AnalysisListItem> consumer) {
+        long count = 0;
+        try (Stream<AnalysisListItem> items = colorAnalysisRepository.streamHistory(user.id())) {
+            Iterator<AnalysisListItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
-     * 사용자의 분석 결과 페이징 조회
+     * 사용자의 분석 히스토리 keyset 페이징 조회
+     * OFFSET 대신 (analyzedAt, id) 커서 이후 행만 읽으므로 페이지 깊이와 무관하게 일정한 비용이 든다.
+     *
+     * @param cursor       이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param includeCount true 일 때만 전체 건수 조회 (COUNT 비용이 필요할 때만)
      */
     @Transactional(readOnly = true)
-    public Page<ColorAnalysis> getUserAnalyses(User user, Pageable pageable) {
-        return colorAnalysisRepository.findByUserOrderByAnalyzedAtDesc(user, pageable);
+    public HistoryPage getHistory(SessionUser user, String cursor, int size, boolean includeCount) {
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<AnalysisListItem> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = colorAnalysisRepository.findHistoryFirst(user.id(), limit);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            rows = colorAnalysisRepository.findHistoryAfter(user.id(), position.analyzedAt(), position.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = HistoryCursor.after(rows.get(size - 1)).encode();
+        }
+        Long totalCount = includeCount ? colorAnalysisRepository.countByUserId(user.id()) : null;
+        return new HistoryPage(List.copyOf(rows), nextCursor, totalCount);
     }
 
     /**
      * 사용자의 최근 분석 결과 조회
      */
     @Transactional(readOnly = true)
-    public ColorAnalysis getLatestAnalysis(User user) {
-        return colorAnalysisRepository.findFirstByUserOrderByAnalyzedAtDesc(user)
+    public ColorAnalysis getLatestAnalysis(SessionUser user) {
+        return colorAnalysisRepository.findFirstByUserOrderByAnalyzedAtDesc(userReference(user))
                 .orElse(null);
     }
 
+    /**
+     * 사용자 본인의 분석 결과 조회 (결과 화면용 필드만, 없거나 다른 사용자의 결과면 null)
+     */
+    @Transactional(readOnly = true)
+    public AnalysisSummary getAnalysisSummary(Long analysisId, SessionUser user) {
+        AnalysisSummary latest = latestAnalysisCache.get(user.id());
+        if (latest != null && latest.id().equals(analysisId)) {
+            return latest;
+        }
+        AnalysisSummary pending = writeBehindBuffer.find(analysisId, user.id());
+        if (pending != null) {
+            return pending;
+        }
+        return colorAnalysisRepository.findSummaryByIdAndUserId(analysisId, user.id()).orElse(null);
+    }
+
+    /**
+     * 사용자의 최근 분석 결과 (결과 화면용 필드만, 캐시 우선)
+     */
+    @Transactional(readOnly = true)
+    public AnalysisSummary getLatestSummary(SessionUser user) {
+        AnalysisSummary latest = latestAnalysisCache.get(user.id());
+        if (latest != null) {
+            return latest;
+        }
+        long stamp = latestAnalysisCache.stamp();
+        List<AnalysisSummary> found = colorAnalysisRepository.findLatestSummaries(user.id(), PageRequest.of(0, 1));
+        if (found.isEmpty()) {
+            return null;
+        }
+        latestAnalysisCache.fill(user.id(), found.get(0), stamp);
+        return found.get(0);
+    }
+
     /**
      * 분석 결과 삭제
      */
-    public void deleteAnalysis(Long analysisId, User user) {
+    public void deleteAnalysis(Long analysisId, SessionUser user) {
+        if (writeBehindBuffer.isPending(analysisId)) {
+            throw new IllegalArgumentException("분석 결과를 저장하는 중입니다. 잠시 후 다시 시도해주세요.");
+        }
         ColorAnalysis analysis = colorAnalysisRepository.findById(analysisId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 분석 결과입니다."));
 
-        if (!analysis.getUser().getId().equals(user.getId())) {
+        if (!analysis.getUser().getId().equals(user.id())) {
             throw new IllegalArgumentException("삭제 권한이 없습니다.");
         }
 
         colorAnalysisRepository.delete(analysis);
-        log.info("분석 결과 삭제: ID={}, 사용자={}", analysisId, user.getEmail());
-    }
-
-    /**
-     * 임시 색상 정보 생성 (실제 분석 결과로 대체 예정)
-     */
-    private String generateSampleColors(ColorAnalysis.ColorType colorType) {
-        // JSON 형태로 대표 색상들 저장
-        switch (colorType) {
-            case SPRING_WARM:
-                return "[\"#FFB6C1\", \"#FFA07A\", \"#F0E68C\", \"#98FB98\"]";
-            case SUMMER_COOL:
-                return "[\"#E6E6FA\", \"#B0C4DE\", \"#F0F8FF\", \"#DDA0DD\"]";
-            case AUTUMN_WARM:
-                return "[\"#D2691E\", \"#CD853F\", \"#B22222\", \"#8B4513\"]";
-            case WINTER_COOL:
-                return "[\"#000080\", \"#800080\", \"#DC143C\", \"#008B8B\"]";
-            default:
-                return "[\"#808080\"]";
-        }
+        eventPublisher.publishEvent(new AnalysisDeletedEvent(user.id(), analysisId, user.gender(),
+                analysis.getColorType()));
+        // 행 삭제가 커밋된 뒤에만 파일 참조 해제 (롤백되면 파일이 남는다)
+        fileStorageService.deleteFileAfterCommit(analysis.getStoredFileName());
+        log.info("분석 결과 삭제: ID={}, 사용자={}", analysisId, user.email());
     }
 }
@@ -0,0 +1,14 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+
+import java.util.Map;
+
+/**
+ * 전체 분석 건수 통계 스냅샷 (컬러 타입별, 성별 × 컬러 타입별)
+ */
+public record ColorStatistics(long total,
+                              Map<ColorAnalysis.ColorType, Long> byColorType,
+                              Map<Gender, Map<ColorAnalysis.ColorType, Long>> byGender) {
+}
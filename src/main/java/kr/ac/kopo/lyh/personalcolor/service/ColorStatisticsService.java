@@ -0,0 +1,228 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorTypeStatistic;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorTypeStatisticRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 컬러 타입 × 성별 분석 건수 카운터
+ *
+ * 저장/삭제 이벤트를 커밋 후 LongAdder 에 변경분으로 모으고, 주기적으로 color_type_stats 요약 테이블에 더한다
+ * (UPDATE ... SET analysis_count = analysis_count + ?). 절대값을 덮어쓰지 않으므로 여러 서버가 함께 반영해도 값이 유지된다.
+ * 조회는 마지막으로 읽은 요약 테이블 값 + 이 서버의 미반영 변경분이라 DB 조회 없이 응답하며,
+ * 다른 서버의 변경분은 반영 주기(app.stats.flush-interval) 안에 보인다.
+ * 요약 테이블이 비어 있거나 rebuild-on-startup=true 이면 기동 시 행을 잠그고 color_analysis 전체 집계로 다시 채운다.
+ * (지연 저장 기록 복구가 끝난 뒤 집계하도록 AnalysisWriteBehindBuffer 다음에 초기화)
+ */
+@Service
+@DependsOn("analysisWriteBehindBuffer")
+@Slf4j
+public class ColorStatisticsService {
+
+    private static final ColorAnalysis.ColorType[] COLOR_TYPES = ColorAnalysis.ColorType.values();
+    private static final Gender[] GENDERS = Gender.values();
+
+    private final ColorAnalysisRepository colorAnalysisRepository;
+    private final ColorTypeStatisticRepository statisticRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    // [컬러 타입][성별] 마지막으로 읽은 요약 테이블 값과 아직 반영하지 않은 이 서버의 변경분
+    private volatile long[][] stored = new long[COLOR_TYPES.length][GENDERS.length];
+    private final LongAdder[][] pending = newCounters();
+
+    public ColorStatisticsService(ColorAnalysisRepository colorAnalysisRepository,
+                                  ColorTypeStatisticRepository statisticRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.stats.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.colorAnalysisRepository = colorAnalysisRepository;
+        this.statisticRepository = statisticRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * 기동 시 요약 테이블 준비 (요청 처리 시작 전)
+     * 재집계는 요약 행을 잠근 채 수행해 다른 서버의 변경분 반영과 섞이지 않게 한다.
+     * 다른 서버가 동시에 처음 채워 키가 충돌하면 한 번 더 시도해 그 결과를 사용한다.
+     */
+    @PostConstruct
+    public void initialize() {
+        long start = System.nanoTime();
+        String mode;
+        try {
+            mode = seed();
+        } catch (DataIntegrityViolationException e) {
+            mode = seed();
+        }
+        reload();
+
+        log.info("분석 통계 초기화 완료: 방식={}, 총 {}건, {}ms", mode, snapshot().total(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private String seed() {
+        return transactionTemplate.execute(status -> {
+            List<ColorTypeStatistic> rows = statisticRepository.findAllForUpdate();
+            if (!rows.isEmpty() && !rebuildOnStartup) {
+                insertMissing(rows);
+                return "요약 테이블";
+            }
+
+            long[][] counts = new long[COLOR_TYPES.length][GENDERS.length];
+            for (Object[] row : colorAnalysisRepository.countByColorTypeAndGender()) {
+                counts[((ColorAnalysis.ColorType) row[0]).ordinal()][((Gender) row[1]).ordinal()] = (Long) row[2];
+            }
+            // 모든 조합의 행을 만들어 두어 이후 반영은 UPDATE 한 번으로 끝나게 한다
+            List<ColorTypeStatistic> rebuilt = new ArrayList<>(COLOR_TYPES.length * GENDERS.length);
+            for (ColorAnalysis.ColorType colorType : COLOR_TYPES) {
+                for (Gender gender : GENDERS) {
+                    rebuilt.add(new ColorTypeStatistic(colorType, gender, counts[colorType.ordinal()][gender.ordinal()]));
+                }
+            }
+            statisticRepository.saveAll(rebuilt);
+            return "전체 집계";
+        });
+    }
+
+    // 새로 추가된 컬러 타입·성별 조합만 0건으로 추가 (기존 값은 건드리지 않음)
+    private void insertMissing(List<ColorTypeStatistic> rows) {
+        boolean[][] present = new boolean[COLOR_TYPES.length][GENDERS.length];
+        for (ColorTypeStatistic row : rows) {
+            present[row.getColorType().ordinal()][row.getGender().ordinal()] = true;
+        }
+        for (ColorAnalysis.ColorType colorType : COLOR_TYPES) {
+            for (Gender gender : GENDERS) {
+                if (!present[colorType.ordinal()][gender.ordinal()]) {
+                    statisticRepository.save(new ColorTypeStatistic(colorType, gender, 0L));
+                }
+            }
+        }
+    }
+
+    /**
+     * 현재 통계 스냅샷 (DB 조회 없음, 다른 서버의 변경분은 반영 주기만큼 늦게 보인다)
+     */
+    public ColorStatistics snapshot() {
+        long[][] current = stored;
+        long total = 0;
+        Map<ColorAnalysis.ColorType, Long> byColorType = new EnumMap<>(ColorAnalysis.ColorType.class);
+        Map<Gender, Map<ColorAnalysis.ColorType, Long>> byGender = new EnumMap<>(Gender.class);
+        for (Gender gender : GENDERS) {
+            byGender.put(gender, new EnumMap<>(ColorAnalysis.ColorType.class));
+        }
+
+        for (ColorAnalysis.ColorType colorType : COLOR_TYPES) {
+            long typeTotal = 0;
+            for (Gender gender : GENDERS) {
+                // 커밋 순서에 따라 삭제가 먼저 반영되어 잠시 음수가 되는 것을 막는다
+                long count = Math.max(0, current[colorType.ordinal()][gender.ordinal()]
+                        + pending[colorType.ordinal()][gender.ordinal()].sum());
+                byGender.get(gender).put(colorType, count);
+                typeTotal += count;
+            }
+            byColorType.put(colorType, typeTotal);
+            total += typeTotal;
+        }
+        return new ColorStatistics(total, byColorType, byGender);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreated(AnalysisCreatedEvent event) {
+        add(event.analysis().colorType(), event.gender(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleted(AnalysisDeletedEvent event) {
+        add(event.colorType(), event.gender(), -1);
+    }
+
+    private void add(ColorAnalysis.ColorType colorType, Gender gender, long delta) {
+        if (colorType == null || gender == null) {
+            return;
+        }
+        pending[colorType.ordinal()][gender.ordinal()].add(delta);
+    }
+
+    /**
+     * 누적 변경분을 요약 테이블에 더하고 다른 서버가 반영한 값까지 다시 읽음
+     * 실패한 변경분은 카운터에 되돌려 다음 주기에 다시 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval:10000}")
+    public void flush() {
+        for (ColorAnalysis.ColorType colorType : COLOR_TYPES) {
+            for (Gender gender : GENDERS) {
+                LongAdder counter = pending[colorType.ordinal()][gender.ordinal()];
+                long delta = counter.sumThenReset();
+                if (delta == 0) {
+                    continue;
+                }
+                try {
+                    if (statisticRepository.addCount(colorType, gender, delta) == 0) {
+                        insertIfAbsent(colorType, gender);
+                        statisticRepository.addCount(colorType, gender, delta);
+                    }
+                } catch (RuntimeException e) {
+                    counter.add(delta);
+                    log.warn("분석 통계 반영 실패: {}/{} {}건, {}", colorType, gender, delta, e.getMessage());
+                }
+            }
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("분석 통계 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    // 행이 없어진 경우 0건으로 추가 (다른 서버가 먼저 추가했으면 그 행을 사용)
+    private void insertIfAbsent(ColorAnalysis.ColorType colorType, Gender gender) {
+        try {
+            statisticRepository.save(new ColorTypeStatistic(colorType, gender, 0L));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("분석 통계 행이 이미 추가됨: {}/{}", colorType, gender);
+        }
+    }
+
+    private void reload() {
+        long[][] counts = new long[COLOR_TYPES.length][GENDERS.length];
+        for (ColorTypeStatistic statistic : statisticRepository.findAll()) {
+            counts[statistic.getColorType().ordinal()][statistic.getGender().ordinal()] = statistic.getAnalysisCount();
+        }
+        stored = counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static LongAdder[][] newCounters() {
+        LongAdder[][] counters = new LongAdder[COLOR_TYPES.length][GENDERS.length];
+        for (LongAdder[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+        return counters;
+    }
+}
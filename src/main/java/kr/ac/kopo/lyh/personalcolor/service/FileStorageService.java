@@ -1,28 +1,88 @@
 package kr.ac.kopo.lyh.personalcolor.service;
 
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.entity.StoredBlob;
+import kr.ac.kopo.lyh.personalcolor.repository.StoredBlobRepository;
 import org.springframework.core.io.Resource;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * 내용 주소 기반 업로드 파일 저장소
+ * 파일명은 "SHA-256 해시 + 확장자"이며, 같은 내용의 파일은 한 번만 저장하고 참조 수로 관리한다.
+ * 파일은 "ab/cd/파일명" 샤드 디렉토리에 두고(UploadShardLayout), 이전 평면 배치 파일도 이전이 끝날 때까지 찾아준다.
+ */
 @Service
 @Slf4j
 public class FileStorageService {
 
+    private static final Pattern CONTENT_HASH = Pattern.compile("^[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String MANIFEST_FILE = ".manifest";
+    private static final Pattern DERIVATIVE_NAME = Pattern.compile("_(\\d{1,5})\\.jpg$");
+
     private final String uploadDir;
+    private final long maxFileSize;
+    private final StoredBlobRepository storedBlobRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final Path root;
+    private final UploadManifest manifest;
+    // 참조 해제는 호출 측 트랜잭션과 무관하게 잠금 안에서 커밋 (잠금 해제 전에 다른 저장이 이전 상태를 읽지 않도록)
+    private final TransactionTemplate releaseTransaction;
+
+    // 같은 해시에 대한 동시 저장/삭제 직렬화
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    // 루트에 평면 배치 파일이 남아 있는 동안만 이전 경로를 함께 확인
+    private volatile boolean flatFilesPresent;
 
-    public FileStorageService(@Value("${app.upload.dir:uploads}") String uploadDir) {
+    public FileStorageService(@Value("${app.upload.dir:uploads}") String uploadDir,
+                              @Value("${app.upload.max-file-size:10MB}") DataSize maxFileSize,
+                              StoredBlobRepository storedBlobRepository,
+                              ImageDerivativeService imageDerivativeService,
+                              PlatformTransactionManager transactionManager) {
         this.uploadDir = uploadDir;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.storedBlobRepository = storedBlobRepository;
+        this.imageDerivativeService = imageDerivativeService;
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.manifest = new UploadManifest(root.resolve(MANIFEST_FILE));
+        this.releaseTransaction = new TransactionTemplate(transactionManager);
+        this.releaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
         createUploadDirectory();
+        loadManifest();
+        refreshLayoutState();
     }
 
     private void createUploadDirectory() {
@@ -37,7 +97,53 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * 매니페스트 로드, 없으면 디렉토리를 한 번 순회해 작성
+     */
+    private void loadManifest() {
+        try {
+            if (manifest.load()) {
+                return;
+            }
+            List<String> names;
+            try (Stream<Path> files = Files.walk(root)) {
+                names = files.filter(Files::isRegularFile)
+                        .filter(path -> !root.relativize(path).toString().startsWith("."))
+                        .map(path -> path.getFileName().toString())
+                        .filter(name -> UploadShardLayout.isPlainFileName(name) && !isDerivative(name))
+                        .toList();
+            }
+            manifest.rebuild(names);
+        } catch (IOException e) {
+            throw new RuntimeException("업로드 매니페스트 로드 실패", e);
+        }
+    }
+
+    /**
+     * 루트에 평면 배치 파일이 남아 있는지 다시 확인 (이전 작업 종료 후 호출)
+     */
+    public void refreshLayoutState() {
+        try (Stream<Path> entries = Files.list(root)) {
+            flatFilesPresent = entries.anyMatch(path -> Files.isRegularFile(path)
+                    && UploadShardLayout.isPlainFileName(path.getFileName().toString()));
+        } catch (IOException e) {
+            throw new RuntimeException("업로드 디렉토리 확인 실패", e);
+        }
+    }
+
+    private boolean isDerivative(String fileName) {
+        Matcher matcher = DERIVATIVE_NAME.matcher(fileName);
+        return matcher.find() && imageDerivativeService.getSizes().contains(Integer.parseInt(matcher.group(1)));
+    }
+
+    /**
+     * 업로드 파일 저장
+     * 스트림을 한 번만 읽어 크기 제한·형식(매직 바이트)·해시를 동시에 검사한 뒤,
+     * 새 파일일 때만 멀티파트 임시 파일을 최종 위치로 이동(transferTo)한다.
+     * 중복 파일은 디스크에 전혀 쓰지 않는다.
+     */
     public String storeFile(MultipartFile file) {
+        Path tempFile = null;
         try {
             // 파일 검증
             if (file.isEmpty()) {
@@ -50,40 +156,169 @@ public class FileStorageService {
                 throw new IllegalArgumentException("파일명이 없습니다.");
             }
 
-            // 확장자 추출
-            String extension = getFileExtension(originalFileName);
+            Inspection inspection = inspect(file);
+            String contentHash = inspection.contentHash();
 
-            // 고유한 파일명 생성 (UUID + 타임스탬프)
-            String uniqueFileName = UUID.randomUUID().toString() +
-                    "_" + System.currentTimeMillis() +
-                    extension;
+            Lock lock = lockFor(contentHash);
+            lock.lock();
+            try {
+                // 이미 같은 내용이 있으면 참조 수만 증가
+                Optional<StoredBlob> existing = storedBlobRepository.findById(contentHash);
+                if (existing.isPresent() && manifest.contains(existing.get().getFileName())) {
+                    storedBlobRepository.incrementRefCount(contentHash);
+                    log.info("중복 파일 재사용: {}", existing.get().getFileName());
+                    return existing.get().getFileName();
+                }
 
-            // 파일 저장 경로
-            Path targetLocation = Paths.get(uploadDir).resolve(uniqueFileName);
+                // 기록은 있으나 파일이 유실된 경우 같은 이름으로 복구
+                String fileName = existing.map(StoredBlob::getFileName)
+                        .orElse(contentHash + inspection.format().getExtension());
 
-            // 파일 저장
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+                // 디스크에 있는 멀티파트는 이름만 바뀌고(rename), 메모리에 있는 경우에만 한 번 기록된다
+                tempFile = root.resolve(".tmp-" + UUID.randomUUID());
+                file.transferTo(tempFile.toFile());
+                Path target = UploadShardLayout.resolve(root, fileName);
+                Files.createDirectories(target.getParent());
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                tempFile = null;
 
-            log.info("파일 저장 완료: {}", uniqueFileName);
-            return uniqueFileName;
+                storedBlobRepository.save(StoredBlob.builder()
+                        .contentHash(contentHash)
+                        .fileName(fileName)
+                        .size(inspection.size())
+                        .refCount(existing.map(blob -> blob.getRefCount() + 1).orElse(1))
+                        .build());
+                manifest.add(fileName);
+
+                // 썸네일/미리보기는 백그라운드에서 생성
+                imageDerivativeService.scheduleAll(target);
+
+                log.info("파일 저장 완료: {}", fileName);
+                return fileName;
+            } finally {
+                lock.unlock();
+            }
 
         } catch (IOException e) {
             log.error("파일 저장 중 오류 발생", e);
             throw new RuntimeException("파일 저장 실패", e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private record Inspection(String contentHash, long size, ImageFormat format) {
+    }
+
+    /**
+     * 업로드 스트림 1회 읽기로 형식·크기·해시 검사 (디스크 쓰기 없음)
+     */
+    private Inspection inspect(MultipartFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ImageFormat format = null;
+        long size = 0;
+
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                if (size == 0) {
+                    format = ImageFormat.detect(buffer, read);
+                    if (format == null) {
+                        throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+                    }
+                }
+                size += read;
+                if (size > maxFileSize) {
+                    throw new IllegalArgumentException("파일 크기가 너무 큽니다.");
+                }
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        if (format == null) {
+            throw new IllegalArgumentException("빈 파일은 저장할 수 없습니다.");
         }
+        return new Inspection(HexFormat.of().formatHex(digest.digest()), size, format);
     }
 
-    private String getFileExtension(String fileName) {
-        int lastDotIndex = fileName.lastIndexOf('.');
-        if (lastDotIndex == -1) {
-            return "";
+    /**
+     * 내용 주소 파일명에서 해시 부분 추출 (이전 방식 파일명이면 null)
+     */
+    public String contentHashOf(String fileName) {
+        if (fileName == null || !CONTENT_HASH.matcher(fileName).find()) {
+            return null;
+        }
+        return fileName.substring(0, 64);
+    }
+
+    public Path getUploadRoot() {
+        return root;
+    }
+
+    /**
+     * 파일명 → 샤드 경로 (아직 이전되지 않은 평면 배치 파일이면 그 경로)
+     */
+    public Path getFilePath(String fileName) {
+        Path sharded = UploadShardLayout.resolve(root, fileName);
+        if (flatFilesPresent && !Files.exists(sharded)) {
+            Path flat = root.resolve(fileName);
+            if (Files.exists(flat)) {
+                return flat;
+            }
+        }
+        return sharded;
+    }
+
+    /**
+     * 업로드 디렉토리 안의 읽을 수 있는 파일 경로 반환 (경로 탈출 방지)
+     */
+    public Path getExistingFilePath(String fileName) {
+        if (!UploadShardLayout.isPlainFileName(fileName)) {
+            throw new IllegalArgumentException("파일을 찾을 수 없습니다: " + fileName);
+        }
+        Path filePath = getFilePath(fileName);
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            throw new IllegalArgumentException("파일을 찾을 수 없습니다: " + fileName);
+        }
+        return filePath;
+    }
+
+    /**
+     * 평면 배치 파일 하나를 샤드 디렉토리로 이동 (온라인 이전용)
+     * 같은 해시의 저장/삭제와 겹치지 않도록 잠금 안에서 옮긴다.
+     *
+     * @return 이동했으면 true
+     */
+    public boolean moveToShard(String fileName) throws IOException {
+        if (!UploadShardLayout.isPlainFileName(fileName)) {
+            return false;
+        }
+        String contentHash = contentHashOf(fileName);
+        Lock lock = contentHash != null ? lockFor(contentHash) : lockFor(fileName);
+        lock.lock();
+        try {
+            Path flat = root.resolve(fileName);
+            if (!Files.isRegularFile(flat)) {
+                return false;
+            }
+            Path target = UploadShardLayout.resolve(root, fileName);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // 이미 샤드에 있으면(같은 내용) 평면 사본만 정리
+                Files.delete(flat);
+            } else {
+                Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return true;
+        } finally {
+            lock.unlock();
         }
-        return fileName.substring(lastDotIndex);
     }
 
     public Resource loadFile(String fileName) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileName);
+            Path filePath = getFilePath(fileName);
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists() && resource.isReadable()) {
@@ -97,14 +332,104 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * 파일 참조 해제
+     * 참조가 모두 사라진 경우에만 실제 파일을 삭제한다.
+     * 참조 수 변경은 별도 트랜잭션으로 잠금 안에서 커밋되므로, 다른 트랜잭션 안에서는 deleteFileAfterCommit 을 사용한다.
+     */
     public void deleteFile(String fileName) {
+        String contentHash = contentHashOf(fileName);
+        // 이전 방식(UUID_타임스탬프) 파일은 파일명 기준 잠금 (샤드 이전과 겹치지 않도록)
+        Lock lock = contentHash != null ? lockFor(contentHash) : lockFor(fileName);
+        lock.lock();
         try {
-            Path filePath = Paths.get(uploadDir).resolve(fileName);
-            Files.deleteIfExists(filePath);
-            log.info("파일 삭제 완료: {}", fileName);
+            if (contentHash == null) {
+                removeFromDisk(fileName);
+                return;
+            }
+            Boolean released = releaseTransaction.execute(status -> {
+                storedBlobRepository.decrementRefCount(contentHash);
+                Optional<StoredBlob> blob = storedBlobRepository.findById(contentHash);
+                if (blob.isPresent() && blob.get().getRefCount() > 0) {
+                    log.info("파일 참조 해제: {}, 남은 참조={}", fileName, blob.get().getRefCount());
+                    return false;
+                }
+                blob.ifPresent(storedBlobRepository::delete);
+                return true;
+            });
+            // 기록 삭제가 커밋된 뒤에 파일 삭제 (커밋 실패 시 파일은 남는다)
+            if (Boolean.TRUE.equals(released)) {
+                removeFromDisk(fileName);
+            }
         } catch (IOException e) {
             log.error("파일 삭제 중 오류 발생: {}", fileName, e);
             throw new RuntimeException("파일 삭제 실패", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 파일 참조 해제 (트랜잭션 밖이면 즉시)
+     * 롤백되면 참조와 파일이 그대로 남는다.
+     */
+    public void deleteFileAfterCommit(String fileName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFile(fileName);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseQuietly(fileName);
+            }
+        });
+    }
+
+    /**
+     * 실패 처리 경로용 참조 해제 (해제 실패는 기록만 하고 원래 오류를 덮지 않는다)
+     */
+    public void releaseQuietly(String fileName) {
+        try {
+            deleteFile(fileName);
+        } catch (RuntimeException e) {
+            log.error("파일 참조 해제 실패: {}", fileName, e);
+        }
+    }
+
+    private void removeFromDisk(String fileName) throws IOException {
+        Path filePath = getFilePath(fileName);
+        Files.deleteIfExists(filePath);
+        imageDerivativeService.deleteAll(filePath);
+        manifest.remove(fileName);
+        log.info("파일 삭제 완료: {}", fileName);
+    }
+
+    private Lock lockFor(String contentHash) {
+        return locks[Math.floorMod(contentHash.hashCode(), LOCK_STRIPES)];
+    }
+
+    @PreDestroy
+    public void closeManifest() throws IOException {
+        manifest.close();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
         }
     }
-}
\ No newline at end of file
+}
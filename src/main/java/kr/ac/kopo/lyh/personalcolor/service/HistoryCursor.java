@@ -0,0 +1,42 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 히스토리 keyset 페이징 위치 (마지막으로 본 행의 analyzedAt, id)
+ * 클라이언트에는 내부 구조를 드러내지 않는 URL-safe 토큰으로 전달한다.
+ */
+public record HistoryCursor(LocalDateTime analyzedAt, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static HistoryCursor after(AnalysisListItem last) {
+        return new HistoryCursor(last.analyzedAt(), last.id());
+    }
+
+    public String encode() {
+        long epochMicros = analyzedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + analyzedAt.getNano() / 1_000;
+        String raw = Long.toString(epochMicros, 36) + "." + Long.toString(id, 36);
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf('.');
+            long epochMicros = Long.parseLong(raw.substring(0, separator), 36);
+            long id = Long.parseLong(raw.substring(separator + 1), 36);
+            LocalDateTime analyzedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                    (int) Math.floorMod(epochMicros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+            return new HistoryCursor(analyzedAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 페이지 토큰입니다.");
+        }
+    }
+}
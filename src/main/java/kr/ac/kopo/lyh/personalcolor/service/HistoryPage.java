@@ -0,0 +1,19 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem;
+
+import java.util.List;
+
+/**
+ * 히스토리 한 페이지
+ *
+ * @param items      이번 페이지 항목 (최신순)
+ * @param nextCursor 다음 페이지 토큰 (마지막 페이지면 null)
+ * @param totalCount 전체 건수 (요청한 경우에만, 아니면 null)
+ */
+public record HistoryPage(List<AnalysisListItem> items, String nextCursor, Long totalCount) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
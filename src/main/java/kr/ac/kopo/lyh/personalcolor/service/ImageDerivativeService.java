@@ -0,0 +1,199 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 원본의 축소본(썸네일/미리보기) 생성
+ *
+ * - 원본 옆에 "이름_크기.jpg" 로 저장 (예: abcd..._128.jpg)
+ * - 저장 직후 백그라운드 작업자(크기 제한 대기열)에서 생성하며, 이미 있거나 생성 중이면 건너뛴다.
+ * - 아직 생성되지 않았으면 원본을 대신 제공한다.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeService {
+
+    private final Set<Integer> sizes;
+    private final ThreadPoolExecutor executor;
+    // 생성 중인 축소본 경로 (중복 생성 방지)
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(MeterRegistry meterRegistry,
+                                  @Value("${app.upload.derivative-sizes:128,512}") List<Integer> sizes,
+                                  @Value("${app.upload.derivative-workers:2}") int workers,
+                                  @Value("${app.upload.derivative-queue-capacity:200}") int queueCapacity) {
+        this.sizes = Set.copyOf(sizes);
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("image-derivative-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("upload.derivatives.queue.depth", executor, e -> e.getQueue().size())
+                .description("대기 중인 축소본 생성 작업 수")
+                .register(meterRegistry);
+    }
+
+    public Set<Integer> getSizes() {
+        return sizes;
+    }
+
+    /**
+     * 설정된 모든 크기의 축소본 생성 예약
+     */
+    public void scheduleAll(Path original) {
+        for (int size : sizes) {
+            schedule(original, size);
+        }
+    }
+
+    /**
+     * 축소본이 있으면 그 경로, 없으면 생성을 예약하고 원본 경로 반환
+     */
+    public Path resolve(Path original, int size) {
+        if (!sizes.contains(size)) {
+            throw new IllegalArgumentException("지원하지 않는 크기입니다: " + size);
+        }
+        Path derivative = derivativePath(original, size);
+        if (Files.exists(derivative)) {
+            return derivative;
+        }
+        schedule(original, size);
+        return original;
+    }
+
+    /**
+     * 원본에 딸린 축소본 삭제
+     */
+    public void deleteAll(Path original) {
+        for (int size : sizes) {
+            try {
+                Files.deleteIfExists(derivativePath(original, size));
+            } catch (IOException e) {
+                log.warn("축소본 삭제 실패: {}", derivativePath(original, size), e);
+            }
+        }
+    }
+
+    public static Path derivativePath(Path original, int size) {
+        String name = original.getFileName().toString();
+        int lastDotIndex = name.lastIndexOf('.');
+        String baseName = lastDotIndex == -1 ? name : name.substring(0, lastDotIndex);
+        return original.resolveSibling(baseName + "_" + size + ".jpg");
+    }
+
+    private void schedule(Path original, int size) {
+        Path derivative = derivativePath(original, size);
+        if (Files.exists(derivative) || !inFlight.add(derivative)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original, derivative, size);
+                } catch (Exception e) {
+                    log.warn("축소본 생성 실패: {}", derivative, e);
+                } finally {
+                    inFlight.remove(derivative);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 차면 이번엔 건너뛰고 다음 요청 때 다시 예약
+            inFlight.remove(derivative);
+            log.debug("축소본 생성 대기열 초과: {}", derivative);
+        }
+    }
+
+    private void generate(Path original, Path derivative, int size) throws IOException {
+        if (Files.exists(derivative)) {
+            return;
+        }
+
+        BufferedImage source = read(original, size);
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+
+        // 임시 이름으로 기록 후 원자적으로 이동 (생성 도중의 파일이 제공되지 않도록)
+        Path temp = derivative.resolveSibling(".tmp-" + UUID.randomUUID() + ".jpg");
+        try {
+            if (!ImageIO.write(target, "jpg", temp.toFile())) {
+                throw new IOException("JPEG 인코더를 찾을 수 없습니다.");
+            }
+            Files.move(temp, derivative, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("축소본 생성 완료: {}", derivative);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 목표 크기의 2배 이상이 유지되는 범위에서 디코더 서브샘플링
+     */
+    private static BufferedImage read(Path original, int size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                throw new IOException("이미지를 열 수 없습니다: " + original);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + original);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longSide / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,45 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+/**
+ * 파일 앞부분(매직 바이트)으로 판별하는 업로드 허용 이미지 형식
+ * 분석기(ImageIO)가 디코딩할 수 있는 형식만 허용한다.
+ */
+public enum ImageFormat {
+    JPEG(".jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+    PNG(".png", new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+    GIF(".gif", new byte[]{'G', 'I', 'F', '8'}),
+    BMP(".bmp", new byte[]{'B', 'M'});
+
+    private final String extension;
+    private final byte[] magic;
+
+    ImageFormat(String extension, byte[] magic) {
+        this.extension = extension;
+        this.magic = magic;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return 일치하는 형식, 없으면 null
+     */
+    public static ImageFormat detect(byte[] header, int length) {
+        for (ImageFormat format : values()) {
+            if (length >= format.magic.length && startsWith(header, format.magic)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
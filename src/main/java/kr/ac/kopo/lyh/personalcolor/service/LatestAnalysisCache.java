@@ -0,0 +1,89 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 사용자 ID → 최근 분석 결과 캐시 (LRU, 크기 제한)
+ * 결과 화면 조회 대부분이 방금 저장한 결과이므로 DB 조회 없이 응답한다.
+ * 저장/삭제 이벤트를 커밋 후에 반영해 롤백된 결과가 캐시에 남지 않도록 한다.
+ * 서버별 메모리 캐시라 다른 서버에서 저장·삭제한 결과는 반영되지 않는다.
+ * 세션을 여러 서버가 공유하는 기본 구성에서는 꺼 두고(항상 DB 조회),
+ * 단일 서버이거나 사용자별 고정 라우팅(sticky session)일 때만 app.analysis.latest-cache.enabled=true 로 켠다.
+ */
+@Component
+public class LatestAnalysisCache {
+
+    private final boolean enabled;
+    private final Map<Long, AnalysisSummary> entries;
+    // 삭제 반영 횟수 (DB 조회 결과로 캐시를 채우기 전에 그 사이 삭제가 있었는지 확인)
+    private long evictions;
+
+    public LatestAnalysisCache(@Value("${app.analysis.latest-cache.enabled:false}") boolean enabled,
+                               @Value("${app.analysis.latest-cache.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AnalysisSummary> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized AnalysisSummary get(Long userId) {
+        return enabled ? entries.get(userId) : null;
+    }
+
+    /**
+     * 캐시된 결과보다 최근(또는 같은 시각)일 때만 교체
+     * (커밋 전 값을 읽은 조회가 커밋 후 반영된 새 결과를 덮어쓰지 않도록)
+     */
+    public synchronized void putIfNewer(Long userId, AnalysisSummary analysis) {
+        if (!enabled) {
+            return;
+        }
+        AnalysisSummary current = entries.get(userId);
+        if (current == null || analysis.analyzedAt() == null || current.analyzedAt() == null
+                || !analysis.analyzedAt().isBefore(current.analyzedAt())) {
+            entries.put(userId, analysis);
+        }
+    }
+
+    /**
+     * DB 조회 직전에 받아 두고 {@link #fill} 에 넘긴다
+     */
+    public synchronized long stamp() {
+        return evictions;
+    }
+
+    /**
+     * 캐시에 없어 DB 에서 읽은 결과로 채움
+     * 조회 중에 삭제가 반영됐으면(stamp 이후 evict) 읽은 값이 이미 삭제된 결과일 수 있으므로 채우지 않는다.
+     */
+    public synchronized void fill(Long userId, AnalysisSummary analysis, long stamp) {
+        if (stamp == evictions) {
+            putIfNewer(userId, analysis);
+        }
+    }
+
+    public synchronized void evict(Long userId) {
+        entries.remove(userId);
+        evictions++;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCreated(AnalysisCreatedEvent event) {
+        // 일괄 저장처럼 여러 건이 들어와도 가장 최근 것만 유지
+        putIfNewer(event.userId(), event.analysis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleted(AnalysisDeletedEvent event) {
+        evict(event.userId());
+    }
+}
@@ -0,0 +1,166 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 이메일별·IP별 로그인 시도 한도 (토큰 버킷)
+ *
+ * 키마다 상태를 만들지 않고 고정 개수의 버킷 배열(stripe)에 해시로 배정하므로
+ * 공격자가 키를 무한히 바꿔도 메모리가 늘지 않는다.
+ * 다른 키가 같은 버킷을 나눠 쓸 수 있으나 한도가 더 빨리 줄어들 뿐 더 느슨해지지는 않는다.
+ * 시도마다(해시 계산 전) 토큰을 하나 쓰고, 로그인에 성공하면 이메일 토큰을 돌려준다.
+ */
+@Service
+public class LoginThrottle {
+
+    private final Buckets emailBuckets;
+    private final Buckets ipBuckets;
+    private final Counter emailRejected;
+    private final Counter ipRejected;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.auth.throttle.stripes:4096}") int stripes,
+                         @Value("${app.auth.throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${app.auth.throttle.email.refill-interval:20s}") Duration emailRefill,
+                         @Value("${app.auth.throttle.ip.capacity:30}") int ipCapacity,
+                         @Value("${app.auth.throttle.ip.refill-interval:2s}") Duration ipRefill) {
+        this(meterRegistry, stripes, emailCapacity, emailRefill, ipCapacity, ipRefill, System::nanoTime);
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, int stripes,
+                  int emailCapacity, Duration emailRefill,
+                  int ipCapacity, Duration ipRefill,
+                  LongSupplier nanoClock) {
+        this.emailBuckets = new Buckets(stripes, emailCapacity, emailRefill.toNanos(), nanoClock);
+        this.ipBuckets = new Buckets(stripes, ipCapacity, ipRefill.toNanos(), nanoClock);
+        this.emailRejected = Counter.builder("auth.login.rejected")
+                .tag("reason", "email")
+                .description("거절된 로그인 시도 수")
+                .register(meterRegistry);
+        this.ipRejected = Counter.builder("auth.login.rejected")
+                .tag("reason", "ip")
+                .description("거절된 로그인 시도 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시도 1회 허용 여부 확인 (IP → 이메일 순)
+     *
+     * @throws LoginThrottledException 한도를 초과한 경우 (다음 토큰까지 남은 초 포함)
+     */
+    public void acquire(String email, String ip) {
+        long ipWait = ipBuckets.tryAcquire(ip);
+        if (ipWait > 0) {
+            ipRejected.increment();
+            throw throttled(ipWait);
+        }
+        long emailWait = emailBuckets.tryAcquire(normalize(email));
+        if (emailWait > 0) {
+            emailRejected.increment();
+            throw throttled(emailWait);
+        }
+    }
+
+    /**
+     * 로그인 성공 시 이메일 토큰 반환 (정상 사용자가 자주 로그인해도 막히지 않도록)
+     */
+    public void onSuccess(String email) {
+        emailBuckets.release(normalize(email));
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static LoginThrottledException throttled(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new LoginThrottledException("로그인 시도가 너무 많습니다. " + seconds + "초 후 다시 시도해주세요.", seconds);
+    }
+
+    private static final class Buckets {
+        private final Bucket[] stripes;
+        private final int mask;
+        private final int capacity;
+        private final long refillNanos;
+        private final LongSupplier nanoClock;
+
+        Buckets(int stripes, int capacity, long refillNanos, LongSupplier nanoClock) {
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+            this.stripes = new Bucket[size];
+            this.mask = size - 1;
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.nanoClock = nanoClock;
+            long now = nanoClock.getAsLong();
+            for (int i = 0; i < size; i++) {
+                this.stripes[i] = new Bucket(capacity, now);
+            }
+        }
+
+        /**
+         * @return 0 이면 허용, 아니면 다음 토큰까지 남은 나노초
+         */
+        long tryAcquire(String key) {
+            Bucket bucket = stripe(key);
+            synchronized (bucket) {
+                refill(bucket);
+                if (bucket.tokens > 0) {
+                    bucket.tokens--;
+                    return 0;
+                }
+                return Math.max(1, bucket.lastRefill + refillNanos - nanoClock.getAsLong());
+            }
+        }
+
+        void release(String key) {
+            Bucket bucket = stripe(key);
+            synchronized (bucket) {
+                refill(bucket);
+                bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+            }
+        }
+
+        private void refill(Bucket bucket) {
+            long now = nanoClock.getAsLong();
+            long elapsed = now - bucket.lastRefill;
+            if (elapsed < refillNanos) {
+                return;
+            }
+            long tokens = elapsed / refillNanos;
+            if (bucket.tokens + tokens >= capacity) {
+                bucket.tokens = capacity;
+                bucket.lastRefill = now;
+            } else {
+                bucket.tokens += (int) tokens;
+                bucket.lastRefill += tokens * refillNanos;
+            }
+        }
+
+        private Bucket stripe(String key) {
+            int h = key == null ? 0 : key.hashCode();
+            h ^= (h >>> 16);
+            h *= 0x45d9f3b;
+            h ^= (h >>> 16);
+            return stripes[h & mask];
+        }
+    }
+
+    private static final class Bucket {
+        private int tokens;
+        private long lastRefill;
+
+        Bucket(int tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalysis;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalyzer;
+import kr.ac.kopo.lyh.personalcolor.exception.AiModelUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 서버 호출 묶음 처리기 (micro-batching)
+ *
+ * 동시에 들어온 분석 요청을 최대 max-size 건 또는 첫 요청 후 max-wait 까지 모아
+ * predictPersonalColorBatch 한 번으로 보내고, 결과를 각 요청의 future 로 나눠 돌려준다.
+ * 모으는 동안에도 이전 묶음은 전송 스레드에서 진행된다.
+ *
+ * app.analysis.engine=remote 이고 app.analysis.remote.batch.enabled=true 일 때 분석기로 사용된다.
+ */
+@Service
+@Primary
+@ConditionalOnExpression("'${app.analysis.engine:local}' == 'remote' and ${app.analysis.remote.batch.enabled:false}")
+@Slf4j
+public class ModelBatchDispatcher implements ImageAnalyzer {
+
+    private record Pending(Path image, CompletableFuture<Map<String, Object>> result, long enqueuedNanos) {
+    }
+
+    private final AiModelClientService aiModelClientService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue;
+    private final ThreadPoolExecutor senders;
+    private final Thread collector;
+
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+
+    private volatile boolean running = true;
+
+    public ModelBatchDispatcher(AiModelClientService aiModelClientService,
+                                MeterRegistry meterRegistry,
+                                WorkerThreadFactories workerThreadFactories,
+                                @Value("${app.analysis.remote.batch.max-size:16}") int maxBatchSize,
+                                @Value("${app.analysis.remote.batch.max-wait:10ms}") Duration maxWait,
+                                @Value("${app.analysis.remote.batch.queue-capacity:500}") int queueCapacity,
+                                @Value("${app.analysis.remote.batch.senders:4}") int senders) {
+        this.aiModelClientService = aiModelClientService;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        // 전송 스레드가 모두 바쁘면 수집 스레드가 직접 보내며 자연스럽게 속도를 늦춘다
+        this.senders = new ThreadPoolExecutor(senders, senders, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senders),
+                workerThreadFactories.blockingIo("ai-model-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.batchSize = DistributionSummary.builder("ai.model.batch.size")
+                .description("AI 서버 한 번 호출에 담긴 이미지 수")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) this.maxBatchSize)
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("ai.model.batch.queue.delay")
+                .description("요청이 묶음에 담겨 전송되기까지 기다린 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("ai.model.batch.queue.depth", queue, BlockingQueue::size)
+                .description("묶음 대기 중인 요청 수")
+                .register(meterRegistry);
+
+        this.collector = new CustomizableThreadFactory("ai-model-batch-collector-").newThread(this::collect);
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    @Override
+    public ImageAnalysis analyze(Path image) throws IOException {
+        try {
+            return AiModelClientService.toImageAnalysis(submit(image).get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("AI 서버 예측 실패", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiModelUnavailableException("AI 서버 요청이 중단되었습니다.", e);
+        }
+    }
+
+    /**
+     * 묶음 대기열에 요청 추가 (즉시 반환)
+     *
+     * @throws AiModelUnavailableException 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<Map<String, Object>> submit(Path image) {
+        Pending pending = new Pending(image, new CompletableFuture<>(), System.nanoTime());
+        if (!running || !queue.offer(pending)) {
+            throw new AiModelUnavailableException("AI 서버 요청 대기열이 가득 찼습니다.", null);
+        }
+        return pending.result();
+    }
+
+    private void collect() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+
+                // 첫 요청 기준 max-wait 까지 또는 max-size 가 찰 때까지 모은다
+                long deadline = first.enqueuedNanos() + maxWaitNanos;
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                List<Pending> ready = List.copyOf(batch);
+                batch.clear();
+                if (senders.isShutdown()) {
+                    ready.forEach(this::failStopped);
+                } else {
+                    senders.execute(() -> send(ready));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        batch.forEach(this::failStopped);
+    }
+
+    private void send(List<Pending> batch) {
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            queueDelay.record(now - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.size());
+
+        try {
+            if (batch.size() == 1) {
+                // 한 건이면 일괄 처리 오버헤드 없이 단건 호출
+                Pending only = batch.get(0);
+                only.result().complete(aiModelClientService.predictPersonalColor(only.image()));
+                return;
+            }
+
+            List<Map<String, Object>> predictions = aiModelClientService.predictPersonalColorBatch(
+                    batch.stream().map(Pending::image).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(predictions.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("AI 서버 일괄 호출 실패: {}건, {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void failStopped(Pending pending) {
+        pending.result().completeExceptionally(
+                new AiModelUnavailableException("AI 서버 요청 처리기가 종료되었습니다.", null));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        collector.interrupt();
+        senders.shutdown();
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::failStopped);
+    }
+}
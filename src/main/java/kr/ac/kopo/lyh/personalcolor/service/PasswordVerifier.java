@@ -0,0 +1,117 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.ac.kopo.lyh.personalcolor.exception.LoginThrottledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt 비밀번호 검증 전용 작업자
+ *
+ * 검증은 요청 스레드가 아닌 고정 크기 작업자에서 수행되어 로그인 폭주가 있어도
+ * 해시 계산이 쓰는 CPU 코어 수가 pool-size 로 제한된다.
+ * 대기열이 가득 차면 해시 계산 없이 즉시 거절한다.
+ */
+@Service
+@Slf4j
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter saturatedCounter;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.auth.hash.pool-size:0}") int poolSize,
+                            @Value("${app.auth.hash.queue-capacity:32}") int queueCapacity,
+                            @Value("${app.auth.hash.timeout:2s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutNanos = timeout.toNanos();
+
+        // 기본값: 코어의 절반 (나머지는 업로드·분석 요청 처리에 남겨 둔다)
+        int workers = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-verifier-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("비밀번호 해시 검증 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.password.wait")
+                .description("비밀번호 검증 대기열 대기 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.saturatedCounter = Counter.builder("auth.login.rejected")
+                .tag("reason", "saturated")
+                .description("거절된 로그인 시도 수")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("대기 중인 비밀번호 검증 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 비밀번호 일치 여부 (호출 스레드는 결과를 기다리기만 한다)
+     *
+     * @throws LoginThrottledException 대기열이 가득 찼거나 제한 시간 안에 검증하지 못한 경우
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long submitted = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long start = System.nanoTime();
+                waitTimer.record(start - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            saturatedCounter.increment();
+            throw new LoginThrottledException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+
+        try {
+            return result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            saturatedCounter.increment();
+            throw new LoginThrottledException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.", 1);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("비밀번호 검증 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new RuntimeException("비밀번호 검증 중단", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
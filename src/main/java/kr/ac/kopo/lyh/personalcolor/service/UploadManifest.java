@@ -0,0 +1,170 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 업로드 원본 파일명 색인
+ *
+ * - 디스크: 추가 전용 로그 ("+이름" / "-이름" 한 줄씩), 시작 시 재생하고 삭제 기록이 많으면 압축
+ *   (기록 도중 종료되어 줄바꿈 없이 끝난 마지막 줄은 버리고 압축해 다시 쓴다)
+ * - 메모리: 파일명 집합 (존재 확인 O(1), 디스크 접근 없음)
+ *
+ * 색인은 언제든 디렉토리를 순회해 다시 만들 수 있으므로 기록마다 fsync 하지 않는다.
+ */
+@Slf4j
+public class UploadManifest {
+
+    private final Path file;
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+    private FileChannel channel;
+    private int removals;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public UploadManifest(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 로그 재생. 파일이 없으면 false (호출 측에서 rebuild 필요)
+     */
+    public boolean load() throws IOException {
+        lock.lock();
+        try {
+            if (!Files.exists(file)) {
+                return false;
+            }
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int complete = content.lastIndexOf('\n') + 1;
+            boolean torn = complete < content.length();
+            if (torn) {
+                log.warn("업로드 매니페스트 마지막 기록 불완전, 버림: {}", content.substring(complete));
+            }
+            for (String line : content.substring(0, complete).split("\n")) {
+                if (line.length() < 2) {
+                    continue;
+                }
+                String name = line.substring(1);
+                if (line.charAt(0) == '+') {
+                    names.add(name);
+                } else if (line.charAt(0) == '-') {
+                    names.remove(name);
+                    removals++;
+                }
+            }
+            // 불완전한 줄 뒤에 이어 쓰면 다음 기록까지 깨지므로 다시 작성
+            if (torn || removals > names.size()) {
+                compact();
+            }
+            open();
+            log.info("업로드 매니페스트 로드: {}개", names.size());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주어진 파일명으로 색인을 새로 작성
+     */
+    public void rebuild(Collection<String> fileNames) throws IOException {
+        lock.lock();
+        try {
+            names.clear();
+            names.addAll(fileNames);
+            compact();
+            open();
+            log.info("업로드 매니페스트 재작성: {}개", names.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(String fileName) {
+        return names.contains(fileName);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public void add(String fileName) {
+        if (names.add(fileName)) {
+            append('+', fileName);
+        }
+    }
+
+    public void remove(String fileName) {
+        if (names.remove(fileName)) {
+            append('-', fileName);
+        }
+    }
+
+    private void append(char op, String fileName) {
+        lock.lock();
+        try {
+            try {
+                channel.write(ByteBuffer.wrap((op + fileName + "\n").getBytes(StandardCharsets.UTF_8)));
+                if (op == '-' && ++removals > Math.max(1024, names.size())) {
+                    channel.close();
+                    compact();
+                    open();
+                }
+            } catch (IOException e) {
+                // 색인 기록 실패는 업로드를 막지 않는다 (다음 재작성 때 복구)
+                log.warn("업로드 매니페스트 기록 실패: {}", fileName, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 집합만 담은 새 로그를 임시 파일로 작성 후 원자적으로 교체
+     */
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<String> snapshot = List.copyOf(names);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String name : snapshot) {
+                writer.write('+');
+                writer.write(name);
+                writer.write('\n');
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        removals = 0;
+    }
+
+    private void open() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
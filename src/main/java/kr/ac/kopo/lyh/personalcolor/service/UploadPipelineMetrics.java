@@ -0,0 +1,106 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 처리 단계별 지표
+ *
+ * - upload.stage{stage=parse|store|analyze|persist}: 단계별 소요 시간 (Prometheus 히스토그램 버킷 포함, p99 알림용)
+ * - upload.rejected{reason}: 거절 사유별 건수
+ * - upload.dir.bytes / upload.dir.files: 업로드 디렉토리 크기 (스크레이프마다 순회하지 않도록 주기적으로 측정)
+ */
+@Component
+@Slf4j
+public class UploadPipelineMetrics {
+
+    public enum Stage {
+        PARSE, STORE, ANALYZE, PERSIST
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final FileStorageService fileStorageService;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+    private final AtomicLong dirBytes = new AtomicLong();
+    private final AtomicLong dirFiles = new AtomicLong();
+
+    public UploadPipelineMetrics(MeterRegistry meterRegistry, FileStorageService fileStorageService) {
+        this.meterRegistry = meterRegistry;
+        this.fileStorageService = fileStorageService;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("upload.stage")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .description("업로드 처리 단계별 소요 시간")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("upload.dir.bytes", dirBytes, AtomicLong::get)
+                .description("업로드 디렉토리 전체 파일 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("upload.dir.files", dirFiles, AtomicLong::get)
+                .description("업로드 디렉토리 파일 수 (파생 이미지 포함)")
+                .register(meterRegistry);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        return stageTimers.get(stage).record(work);
+    }
+
+    /**
+     * 업로드 거절 1건 기록
+     *
+     * @param reason unauthenticated, empty, not_image, invalid_file(400), too_large, queue_full, ai_unavailable, error(500) 등
+     */
+    public void reject(String reason) {
+        rejected.computeIfAbsent(reason, r -> Counter.builder("upload.rejected")
+                .tag("reason", r)
+                .description("거절된 업로드 수")
+                .register(meterRegistry)).increment();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.metrics.upload-dir-scan-interval:60000}")
+    public void measureUploadDir() {
+        long start = System.nanoTime();
+        long[] totals = new long[2];
+        try (Stream<Path> files = Files.walk(fileStorageService.getUploadRoot())) {
+            files.filter(Files::isRegularFile).forEach(path -> {
+                try {
+                    totals[0] += Files.size(path);
+                    totals[1]++;
+                } catch (IOException e) {
+                    // 순회 중 삭제된 파일
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("업로드 디렉토리 크기 측정 실패: {}", e.getMessage());
+            return;
+        }
+        dirBytes.set(totals[0]);
+        dirFiles.set(totals[1]);
+        log.debug("업로드 디렉토리 측정: {} bytes, {}개, {}ms",
+                totals[0], totals[1], (System.nanoTime() - start) / 1_000_000);
+    }
+}
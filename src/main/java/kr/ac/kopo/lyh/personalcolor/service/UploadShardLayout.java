@@ -0,0 +1,62 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 업로드 디렉토리 샤딩 규칙: "ab/cd/파일명"
+ *
+ * - 파일명 앞 4자가 16진수이면(내용 해시·UUID 파일명) 그대로 2단계 디렉토리로 사용
+ * - 그 밖의 이름은 첫 '_' 또는 '.' 앞부분의 해시값으로 샤드를 정한다.
+ *   (축소본 "이름_크기.jpg" 가 원본과 같은 디렉토리에 놓이도록)
+ */
+public final class UploadShardLayout {
+
+    private static final int SHARD_CHARS = 4;
+
+    private UploadShardLayout() {
+    }
+
+    /**
+     * 업로드 루트 기준 샤드 경로 (예: "ab/cd/abcd....jpg")
+     */
+    public static String relativePath(String fileName) {
+        String shard = shardOf(fileName);
+        return shard.substring(0, 2) + "/" + shard.substring(2, 4) + "/" + fileName;
+    }
+
+    public static Path resolve(Path root, String fileName) {
+        String shard = shardOf(fileName);
+        return root.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(fileName);
+    }
+
+    /**
+     * 경로 구분자가 없고 '.' 으로 시작하지 않는 단순 파일명인지 확인
+     * (상위 경로, 임시 파일, 매니페스트 등 숨김 파일 제외)
+     */
+    public static boolean isPlainFileName(String fileName) {
+        return fileName != null && !fileName.isEmpty() && fileName.charAt(0) != '.'
+                && fileName.indexOf('/') == -1 && fileName.indexOf('\\') == -1;
+    }
+
+    private static String shardOf(String fileName) {
+        if (fileName.length() >= SHARD_CHARS && isHex(fileName, SHARD_CHARS)) {
+            return fileName.substring(0, SHARD_CHARS).toLowerCase(Locale.ROOT);
+        }
+        int end = 0;
+        while (end < fileName.length() && fileName.charAt(end) != '_' && fileName.charAt(end) != '.') {
+            end++;
+        }
+        int hash = fileName.substring(0, end).hashCode();
+        return String.format("%04x", (hash ^ (hash >>> 16)) & 0xFFFF);
+    }
+
+    private static boolean isHex(String s, int length) {
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(s.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
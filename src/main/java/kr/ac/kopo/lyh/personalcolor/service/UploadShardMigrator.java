@@ -0,0 +1,80 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 평면 업로드 디렉토리 → 샤드 배치 온라인 이전
+ *
+ * app.upload.migrate-on-startup=true 일 때 기동 후 백그라운드 스레드 하나로 루트의 파일을 하나씩 옮긴다.
+ * 이전 중에도 FileStorageService 가 평면 경로를 함께 확인하므로 서비스는 중단되지 않는다.
+ */
+@Component
+@Slf4j
+public class UploadShardMigrator {
+
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final FileStorageService fileStorageService;
+    private final boolean enabled;
+
+    public UploadShardMigrator(FileStorageService fileStorageService,
+                               @Value("${app.upload.migrate-on-startup:false}") boolean enabled) {
+        this.fileStorageService = fileStorageService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new CustomizableThreadFactory("upload-shard-migration-").newThread(this::migrate);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 루트의 평면 배치 파일을 모두 샤드 디렉토리로 이동
+     *
+     * @return 이동한 파일 수
+     */
+    public long migrate() {
+        Path root = fileStorageService.getUploadRoot();
+        long moved = 0;
+        long failed = 0;
+        log.info("업로드 샤드 이전 시작: {}", root);
+
+        // 디렉토리 항목을 목록으로 모으지 않고 스트림으로 순회 (항목이 수백만 개일 수 있음)
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path entry : entries) {
+                try {
+                    if (fileStorageService.moveToShard(entry.getFileName().toString())) {
+                        moved++;
+                        if (moved % PROGRESS_INTERVAL == 0) {
+                            log.info("업로드 샤드 이전 진행: {}개", moved);
+                        }
+                    }
+                } catch (IOException e) {
+                    failed++;
+                    log.warn("업로드 샤드 이전 실패: {}", entry, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("업로드 샤드 이전 중단", e);
+        }
+
+        fileStorageService.refreshLayoutState();
+        log.info("업로드 샤드 이전 완료: 이동={}, 실패={}", moved, failed);
+        return moved;
+    }
+}
@@ -0,0 +1,132 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 이메일 → 사용자 캐시 (LRU, 크기·유효 시간 제한)
+ * 로그인·가입 확인 때마다 users 테이블을 조회하지 않도록 한다.
+ *
+ * 엔티티를 공유하지 않도록 넣을 때와 꺼낼 때 복사본을 쓴다.
+ * 이 서버에서의 변경은 커밋 후 즉시 비우고, 다른 서버에서의 변경은 ttl 이 지나면 반영된다.
+ */
+@Component
+public class UserCache {
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${app.auth.user-cache.max-entries:10000}") int maxEntries,
+                     @Value("${app.auth.user-cache.ttl:5m}") Duration ttl) {
+        this(meterRegistry, maxEntries, ttl, System::nanoTime);
+    }
+
+    UserCache(MeterRegistry meterRegistry, int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        // Spring 캐시 지표(cache.gets, cache.evictions)와 같은 이름·태그
+        this.hits = Counter.builder("cache.gets").tag("cache", "users").tag("result", "hit")
+                .description("사용자 캐시 조회 수")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "users").tag("result", "miss")
+                .description("사용자 캐시 조회 수")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("cache.evictions").tag("cache", "users").tag("cause", "size")
+                .description("사용자 캐시에서 밀려난 항목 수")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("cache.evictions").tag("cache", "users").tag("cause", "expired")
+                .description("사용자 캐시에서 밀려난 항목 수")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tag("cache", "users")
+                .description("사용자 캐시 항목 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 사용자 복사본 (없거나 만료되었으면 null)
+     */
+    public synchronized User get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(email);
+            expiredEvictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.user());
+    }
+
+    public synchronized void put(String email, User user) {
+        entries.put(email, new Entry(copy(user), nanoClock.getAsLong() + ttlNanos));
+    }
+
+    /**
+     * 해당 사용자의 항목 모두 제거 (대소문자만 다른 이메일로 조회해 둔 항목 포함)
+     */
+    public synchronized void evict(Long userId, String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.user().getId()));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(UserChangedEvent event) {
+        evict(event.userId(), event.email());
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .name(user.getName())
+                .password(user.getPassword())
+                .gender(user.getGender())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+/**
+ * 사용자 정보 생성·변경 이벤트 (트랜잭션 안에서 발행, 구독자는 커밋 후 처리)
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
@@ -1,11 +1,13 @@
 package kr.ac.kopo.lyh.personalcolor.service;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import kr.ac.kopo.lyh.personalcolor.controller.dto.SignupForm;
 import kr.ac.kopo.lyh.personalcolor.entity.User;
 import kr.ac.kopo.lyh.personalcolor.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,10 +19,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User createUser(SignupForm signupForm) {
-        // 이메일 중복 확인
-        if (userRepository.existsByEmail(signupForm.getEmail())) {
+        // 이메일 중복 확인 (캐시에 있으면 이미 가입된 사용자)
+        if (userCache.get(signupForm.getEmail()) != null || userRepository.existsByEmail(signupForm.getEmail())) {
             throw new IllegalArgumentException("이미 가입된 이메일입니다.");
         }
 
@@ -36,16 +41,21 @@ public class UserService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), savedUser.getEmail()));
         log.info("새 사용자 가입: {}", savedUser.getEmail());
 
         return savedUser;
     }
 
+    /**
+     * 비밀번호 확인 (BCrypt 검증은 PasswordVerifier 작업자에서 수행)
+     * 해시 검증을 기다리는 동안 DB 연결을 잡고 있지 않도록 트랜잭션 없이 실행한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User authenticate(String email, String password) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
+        User user = findByEmail(email);
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordVerifier.matches(password, user.getPassword())) {
             throw new IllegalArgumentException("비밀번호가 올바르지 않습니다.");
         }
 
@@ -53,9 +63,19 @@ public class UserService {
         return user;
     }
 
+    /**
+     * 이메일로 사용자 조회 (UserCache 우선, 없으면 DB 조회 후 캐시)
+     * 캐시에서 꺼낸 User 는 공유되지 않는 복사본이므로 변경해도 캐시에 영향이 없다.
+     */
     @Transactional(readOnly = true)
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        User cached = userCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 사용자입니다."));
+        userCache.put(email, user);
+        return user;
     }
 }
\ No newline at end of file
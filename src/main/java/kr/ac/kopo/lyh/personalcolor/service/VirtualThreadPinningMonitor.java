@@ -0,0 +1,101 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 가상 스레드 pinning 감시 (가상 스레드 모드에서만 등록)
+ *
+ * synchronized 블록 안이나 네이티브 호출 중에 블로킹되면 가상 스레드가 캐리어 스레드를 붙잡아
+ * 다른 가상 스레드가 실행되지 못한다. JFR jdk.VirtualThreadPinned 이벤트를 앱 안에서 구독해
+ * - jvm.threads.virtual.pinned: pinning 구간 시간 (threshold 이상만)
+ * - 처음 보는 호출 위치는 스택과 함께 경고 로그 (같은 위치는 한 번만)
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "kr.ac.kopo.lyh.personalcolor";
+    private static final int MAX_REPORTED_SITES = 256;
+
+    private final Timer pinned;
+    private final Counter unreported;
+    private final int stackDepth;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.threads.pinned.threshold:20ms}") Duration threshold,
+                                       @Value("${app.threads.pinned.stack-depth:16}") int stackDepth) {
+        this.stackDepth = stackDepth;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("캐리어 스레드를 붙잡은 채 블로킹된 가상 스레드 구간")
+                .register(meterRegistry);
+        this.unreported = Counter.builder("jvm.threads.virtual.pinned.unreported")
+                .description("호출 위치가 많아 로그를 생략한 pinning 수")
+                .register(meterRegistry);
+
+        this.stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("가상 스레드 pinning 감시 시작: threshold={}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        // 앱 코드의 첫 프레임을 호출 위치로 사용 (없으면 최상단 프레임)
+        RecordedFrame site = stackTrace.getFrames().stream()
+                .filter(frame -> frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse(stackTrace.getFrames().isEmpty() ? null : stackTrace.getFrames().get(0));
+        if (site == null) {
+            return;
+        }
+        String key = format(site);
+        if (reportedSites.size() >= MAX_REPORTED_SITES && !reportedSites.contains(key)) {
+            unreported.increment();
+            return;
+        }
+        if (reportedSites.add(key)) {
+            log.warn("가상 스레드 pinning {}ms at {}\n{}", event.getDuration().toMillis(), key,
+                    stackTrace.getFrames().stream()
+                            .limit(stackDepth)
+                            .map(frame -> "\tat " + format(frame))
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    @PreDestroy
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,49 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 앱 내부 작업자 스레드 생성
+ *
+ * spring.threads.virtual.enabled=true 이고 Java 21 이상이면(Tomcat 요청 스레드와 같은 조건)
+ * 외부 호출처럼 대부분 블로킹 I/O 로 기다리는 작업자를 가상 스레드로 만든다.
+ * BCrypt·이미지 처리처럼 CPU 를 쓰는 작업자는 코어 수 제한이 목적이므로 계속 플랫폼 스레드를 쓴다.
+ *
+ * 잠금을 잡은 채 파일·DB I/O 를 하는 곳(업로드 저장, 매니페스트, 분석 결과 기록)은 synchronized 대신
+ * ReentrantLock 을 쓴다. synchronized 안에서 블로킹하면 가상 스레드가 캐리어 스레드를 붙잡는다(pinning).
+ */
+@Component
+@Slf4j
+public class WorkerThreadFactories {
+
+    private final boolean virtual;
+
+    public WorkerThreadFactories(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (virtual) {
+            log.info("가상 스레드 모드: 요청 처리 및 블로킹 I/O 작업자에 가상 스레드 사용");
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 블로킹 I/O 작업자용 (가상 스레드 모드면 가상 스레드)
+     * 풀 크기·대기열 제한은 호출 측 실행기가 그대로 유지한다.
+     */
+    public ThreadFactory blockingIo(String threadNamePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(threadNamePrefix);
+    }
+}
@@ -0,0 +1,441 @@
+package kr.ac.kopo.lyh.personalcolor;
+
+import kr.ac.kopo.lyh.personalcolor.analysis.SamplePortraits;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SignupForm;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.service.ColorAnalysisService;
+import kr.ac.kopo.lyh.personalcolor.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로그인 / 업로드 / 결과 / 히스토리 혼합 부하 측정 (내장 H2, 외부 서비스 없음)
+ *
+ * 실제 포트로 앱을 띄우고 사용자·히스토리·이미지를 준비한 뒤,
+ * 열린 모델(open-loop)로 응답과 무관하게 정해진 도착률(Poisson)로 요청을 보낸다.
+ * 지연 시간은 요청이 "보내졌어야 할" 시각부터 재므로 동시 요청 한도에 걸려 기다린 시간도 포함된다.
+ *
+ * 실행: ./gradlew benchmark --tests '*EndToEndLoadBenchmark' -Dload.rate=100 -Dload.duration=60
+ * 설정 (시스템 속성):
+ * - load.rate: 초당 요청 수 (기본 50)
+ * - load.duration / load.warmup: 측정 / 예열 시간(초) (기본 30 / 10)
+ * - load.concurrency: 동시 요청 한도 (기본 64)
+ * - load.users: 로그인 사용자 수 (기본 50)
+ * - load.history-rows: 사용자별 미리 넣는 분석 결과 수 (기본 200)
+ * - load.mix: 요청 비율 (기본 login=5,upload=15,results=40,history=40)
+ * - load.unique-uploads: 업로드마다 내용을 바꿔 중복 재사용·분석 캐시를 피함 (기본 true)
+ * - load.virtual-threads: 요청을 가상 스레드로 처리 (기본 false, -PjavaVersion=21 필요)
+ */
+@Tag("benchmark")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.root=WARN",
+        "logging.level.kr.ac.kopo=WARN",
+        // 모든 요청이 127.0.0.1 에서 오므로 로그인 시도 한도는 사실상 해제
+        "app.auth.throttle.ip.capacity=1000000000",
+        "app.auth.throttle.email.capacity=1000000000",
+        "spring.threads.virtual.enabled=${load.virtual-threads:false}"
+})
+class EndToEndLoadBenchmark {
+
+    private enum Endpoint {
+        LOGIN, UPLOAD, RESULTS, HISTORY
+    }
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 10);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int HISTORY_ROWS = Integer.getInteger("load.history-rows", 200);
+    private static final String MIX = System.getProperty("load.mix", "login=5,upload=15,results=40,history=40");
+    private static final boolean UNIQUE_UPLOADS = Boolean.parseBoolean(System.getProperty("load.unique-uploads", "true"));
+
+    private static final String PASSWORD = "load-test-pw";
+    private static final int FIXTURES = 16;
+    private static final Pattern CSRF_TOKEN = Pattern.compile("<meta name=\"_csrf\" content=\"([^\"]+)\"");
+    private static final Pattern CSRF_HEADER = Pattern.compile("<meta name=\"_csrf_header\" content=\"([^\"]+)\"");
+
+    private static final Path UPLOAD_DIR;
+
+    static {
+        try {
+            UPLOAD_DIR = Files.createTempDirectory("load-uploads");
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", UPLOAD_DIR::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ColorAnalysisService colorAnalysisService;
+
+    private final HttpClient anonymous = newClient(false);
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final List<byte[]> fixtures = new ArrayList<>();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Map<Endpoint, Integer> weights = parseMix(MIX);
+        seed();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            run(executor, weights, WARMUP_SECONDS, new EnumMap<>(Endpoint.class));
+
+            Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                recorders.put(endpoint, new Recorder());
+            }
+            long start = System.nanoTime();
+            run(executor, weights, DURATION_SECONDS, recorders);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            report(recorders, seconds);
+            long completed = recorders.values().stream().mapToLong(Recorder::count).sum();
+            assertTrue(completed > 0, "완료된 요청이 없습니다.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ---- 준비 ----
+
+    private void seed() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < FIXTURES; i++) {
+            fixtures.add(SamplePortraits.jpeg(800, 1000, i));
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            String email = "load" + i + "@example.com";
+            User user = userService.createUser(new SignupForm(email, "부하" + i, PASSWORD, PASSWORD,
+                    i % 2 == 0 ? Gender.WOMAN : Gender.MAN));
+            seedHistory(user);
+
+            VirtualUser virtualUser = new VirtualUser(email, newClient(true));
+            virtualUser.signIn();
+            // 결과 화면이 비어 있지 않도록 한 번씩 업로드
+            virtualUser.upload();
+            users.add(virtualUser);
+        }
+        System.out.printf("준비 완료: 사용자 %d명, 사용자별 히스토리 %d건, 이미지 %d종, %.1fs%n",
+                USERS, HISTORY_ROWS, FIXTURES, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void seedHistory(User user) {
+        ColorAnalysis.ColorType[] types = ColorAnalysis.ColorType.values();
+        List<ColorAnalysis> rows = new ArrayList<>(HISTORY_ROWS);
+        for (int i = 0; i < HISTORY_ROWS; i++) {
+            ColorAnalysis.ColorType type = types[i % types.length];
+            rows.add(ColorAnalysis.builder()
+                    .user(user)
+                    .originalFileName("seed-" + i + ".jpg")
+                    .storedFileName("seed-" + i + ".jpg")
+                    .colorType(type)
+                    .description(type.getDescription())
+                    .dominantColors("[{\"hex\":\"#E0AC8A\",\"weight\":0.6},{\"hex\":\"#46596F\",\"weight\":0.4}]")
+                    .confidence(0.7f)
+                    .build());
+        }
+        colorAnalysisService.bulkInsert(rows);
+    }
+
+    // ---- 부하 생성 ----
+
+    /**
+     * seconds 동안 RATE 의 Poisson 도착으로 요청을 예약하고, 모두 끝날 때까지 기다린다
+     */
+    private void run(ExecutorService executor, Map<Endpoint, Integer> weights, int seconds,
+                     Map<Endpoint, Recorder> recorders) throws InterruptedException {
+        Random random = new Random(7);
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long intended = start;
+        List<Future<?>> futures = new ArrayList<>();
+
+        while (true) {
+            // 지수 분포 도착 간격
+            intended += (long) (-Math.log(1 - random.nextDouble()) / RATE * 1e9);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = pick(weights, totalWeight, random);
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            long scheduledAt = intended;
+            futures.add(executor.submit(() -> {
+                Outcome outcome = execute(endpoint, user);
+                Recorder recorder = recorders.get(endpoint);
+                if (recorder != null) {
+                    recorder.record(System.nanoTime() - scheduledAt, outcome);
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private Outcome execute(Endpoint endpoint, VirtualUser user) {
+        try {
+            return switch (endpoint) {
+                case LOGIN -> login(anonymous, user.email);
+                case UPLOAD -> user.upload();
+                case RESULTS -> user.get("/results");
+                case HISTORY -> user.get("/history?size=10");
+            };
+        } catch (IOException e) {
+            return Outcome.failure("io");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.failure("interrupted");
+        }
+    }
+
+    private Outcome login(HttpClient client, String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return Outcome.of(response, response.statusCode() == 200 && response.body().contains("\"success\":true"));
+    }
+
+    private final class VirtualUser {
+
+        private final String email;
+        private final HttpClient client;
+        private String csrfHeader;
+        private String csrfToken;
+
+        VirtualUser(String email, HttpClient client) {
+            this.email = email;
+            this.client = client;
+        }
+
+        /**
+         * 메인 페이지에서 CSRF 토큰을 받고 같은 세션으로 로그인
+         */
+        void signIn() throws IOException, InterruptedException {
+            String page = client.send(HttpRequest.newBuilder(uri("/")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            csrfToken = find(CSRF_TOKEN, page);
+            csrfHeader = find(CSRF_HEADER, page);
+            Outcome outcome = login(client, email);
+            if (!outcome.success()) {
+                throw new IllegalStateException("로그인 실패: " + email + " (" + outcome.reason() + ")");
+            }
+        }
+
+        Outcome upload() throws IOException, InterruptedException {
+            byte[] image = fixtures.get(ThreadLocalRandom.current().nextInt(fixtures.size()));
+            if (UNIQUE_UPLOADS) {
+                // JPEG 끝(EOI) 뒤 바이트는 디코더가 무시하므로 해시만 달라진다
+                image = Arrays.copyOf(image, image.length + 16);
+                byte[] suffix = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(suffix, 0, image, image.length - 16, 16);
+            }
+
+            String boundary = "----load" + UUID.randomUUID();
+            byte[] head = ("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"photo.jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+            byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/upload"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .header(csrfHeader, csrfToken)
+                    .header("X-Requested-With", "XMLHttpRequest")
+                    .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(head, image, tail)))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            return Outcome.of(response, response.statusCode() == 200 && response.body().contains("\"success\":true"));
+        }
+
+        /**
+         * 화면 요청 (리다이렉트 = 세션 만료 또는 결과 없음 → 실패로 집계)
+         */
+        Outcome get(String path) throws IOException, InterruptedException {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(path)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return Outcome.of(response, response.statusCode() == 200);
+        }
+    }
+
+    // ---- 집계 ----
+
+    private record Outcome(boolean success, String reason) {
+
+        static Outcome of(HttpResponse<?> response, boolean success) {
+            return new Outcome(success, success ? null : String.valueOf(response.statusCode()));
+        }
+
+        static Outcome failure(String reason) {
+            return new Outcome(false, reason);
+        }
+    }
+
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Integer> errors = new TreeMap<>();
+
+        synchronized void record(long nanos, Outcome outcome) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!outcome.success()) {
+                errors.merge(outcome.reason(), 1, Integer::sum);
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized Map<String, Integer> errors() {
+            return new TreeMap<>(errors);
+        }
+    }
+
+    private static void report(Map<Endpoint, Recorder> recorders, double seconds) {
+        System.out.printf("%n목표 %.1f req/s, 동시 요청 한도 %d, 측정 %.1fs, 혼합 %s%n", RATE, CONCURRENCY, seconds, MIX);
+        System.out.printf("%-8s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "p999(ms)", "max(ms)", "errors");
+        for (Map.Entry<Endpoint, Recorder> entry : recorders.entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            if (sorted.length == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    entry.getKey().name().toLowerCase(), sorted.length, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6, entry.getValue().errors());
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    // ---- 도우미 ----
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix 에 요청 비율이 없습니다: " + mix);
+        }
+        return weights;
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> weights, int totalWeight, Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpClient newClient(boolean withCookies) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (withCookies) {
+            builder.cookieHandler(new CookieManager());
+        }
+        return builder.build();
+    }
+
+    private static String find(Pattern pattern, String page) {
+        Matcher matcher = pattern.matcher(page);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRF 토큰을 찾을 수 없습니다.");
+        }
+        return matcher.group(1);
+    }
+}
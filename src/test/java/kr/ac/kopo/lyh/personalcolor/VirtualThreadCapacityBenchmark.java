@@ -0,0 +1,157 @@
+package kr.ac.kopo.lyh.personalcolor;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 요청 스레드 방식별 최대 동시 처리량과 처리 중 요청당 메모리 비교
+ * 요청 하나 = HOLD_MILLIS 동안 블로킹 I/O(JDBC·파일·외부 호출 대기) 후 응답. N건이 한꺼번에 도착한다.
+ *  - platform-pool: Tomcat 기본 작업자 200개 (나머지는 대기열에서 기다림)
+ *  - platform     : 요청마다 플랫폼 스레드 (스레드 수 = 동시 요청 수)
+ *  - virtual      : 요청마다 가상 스레드 (spring.threads.virtual.enabled=true)
+ *  - virtual-sync : 가상 스레드 + synchronized 안에서 블로킹 (Java 21~23 에서 캐리어 스레드 pinning)
+ *  - virtual-lock : 가상 스레드 + ReentrantLock 안에서 블로킹 (pinning 없음)
+ * "유지 가능" = p99 지연이 HOLD_MILLIS 의 2배 이내. 메모리는 모두 처리 중일 때의 RSS·힙 증가분 / N.
+ * 실행: ./gradlew benchmark --tests '*VirtualThreadCapacityBenchmark' -PjavaVersion=21
+ */
+@Tag("benchmark")
+class VirtualThreadCapacityBenchmark {
+
+    private static final int TOMCAT_THREADS = 200;
+    private static final long HOLD_MILLIS = 200;
+    private static final int[] LEVELS = {200, 1_000, 4_000, 10_000};
+    // 요청마다 플랫폼 스레드를 만드는 방식은 OS 한도에 걸리지 않도록 이 수까지만
+    private static final int PLATFORM_LIMIT = 4_000;
+    // pinning 시 캐리어 수만큼만 동시에 처리되므로 측정 시간이 너무 길어지지 않도록
+    private static final int PINNED_LIMIT = 1_000;
+
+    private enum Mode {
+        PLATFORM_POOL, PLATFORM, VIRTUAL, VIRTUAL_SYNC, VIRTUAL_LOCK
+    }
+
+    @Test
+    void blockingRequests() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "가상 스레드는 Java 21 이상 필요 (-PjavaVersion=21)");
+
+        System.out.printf("요청당 블로킹 %dms, 캐리어 스레드 %d개%n", HOLD_MILLIS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %7s %9s %9s %9s %12s %12s  %s%n",
+                "mode", "N", "total(ms)", "p50(ms)", "p99(ms)", "rss/req(KB)", "heap/req(KB)", "sustainable");
+        for (Mode mode : Mode.values()) {
+            for (int n : LEVELS) {
+                if (mode == Mode.PLATFORM && n > PLATFORM_LIMIT || mode == Mode.VIRTUAL_SYNC && n > PINNED_LIMIT) {
+                    continue;
+                }
+                run(mode, n);
+            }
+        }
+    }
+
+    private void run(Mode mode, int n) throws Exception {
+        ExecutorService pool = mode == Mode.PLATFORM_POOL ? Executors.newFixedThreadPool(TOMCAT_THREADS) : null;
+        Executor executor = switch (mode) {
+            case PLATFORM_POOL -> pool;
+            case PLATFORM -> task -> new Thread(task).start();
+            case VIRTUAL, VIRTUAL_SYNC, VIRTUAL_LOCK -> new VirtualThreadTaskExecutor("bench-");
+        };
+
+        System.gc();
+        long baseRss = rssBytes();
+        long baseHeap = heapUsedBytes();
+
+        long[] latencies = new long[n];
+        CountDownLatch started = new CountDownLatch(Math.min(n, mode == Mode.PLATFORM_POOL ? TOMCAT_THREADS : n));
+        CountDownLatch done = new CountDownLatch(n);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            executor.execute(() -> {
+                started.countDown();
+                handle(mode);
+                latencies[index] = System.nanoTime() - start;
+                done.countDown();
+            });
+        }
+
+        // 동시에 처리 중인 요청이 가장 많을 때 메모리 측정
+        started.await(30, TimeUnit.SECONDS);
+        long rss = rssBytes() - baseRss;
+        long heap = heapUsedBytes() - baseHeap;
+        int inFlight = mode == Mode.PLATFORM_POOL ? Math.min(n, TOMCAT_THREADS) : n;
+
+        boolean finished = done.await(5, TimeUnit.MINUTES);
+        long total = System.nanoTime() - start;
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        Arrays.sort(latencies);
+        double p50 = latencies[n / 2] / 1e6;
+        double p99 = latencies[Math.min(n - 1, (int) (n * 0.99))] / 1e6;
+        System.out.printf("%-14s %7d %9.0f %9.0f %9.0f %12s %12s  %s%n",
+                mode.name().toLowerCase().replace('_', '-'), n, total / 1e6, p50, p99,
+                baseRss < 0 ? "-" : String.format("%.1f", rss / 1024.0 / inFlight),
+                String.format("%.1f", heap / 1024.0 / inFlight),
+                finished && p99 <= HOLD_MILLIS * 2 ? "yes" : "no");
+    }
+
+    private static void handle(Mode mode) {
+        switch (mode) {
+            case VIRTUAL_SYNC -> {
+                synchronized (new Object()) {
+                    sleep(HOLD_MILLIS);
+                }
+            }
+            case VIRTUAL_LOCK -> {
+                ReentrantLock lock = new ReentrantLock();
+                lock.lock();
+                try {
+                    sleep(HOLD_MILLIS);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            default -> sleep(HOLD_MILLIS);
+        }
+    }
+
+    // 리눅스 /proc 기준 (스레드 스택 등 힙 밖 메모리 포함), 다른 OS 는 -1
+    private static long rssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 지원하지 않는 OS
+        }
+        return -1;
+    }
+
+    private static long heapUsedBytes() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
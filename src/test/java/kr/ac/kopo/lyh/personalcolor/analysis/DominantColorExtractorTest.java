@@ -0,0 +1,83 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 대표 색상 추출: 고정 이미지의 결과가 병렬도와 무관하게 같은지, 비중 합, colors 설정 범위
+ */
+class DominantColorExtractorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsExactClustersWithWeights() {
+        // 100x100 (분할 기준 8192 초과): 빨강 50%, 초록 30%, 파랑 20%
+        int[] pixels = new int[10_000];
+        Arrays.fill(pixels, 0, 5_000, 0xFF0000);
+        Arrays.fill(pixels, 5_000, 8_000, 0x00FF00);
+        Arrays.fill(pixels, 8_000, 10_000, 0x0000FF);
+
+        List<DominantColor> palette = extract(3, 0, new SampledImage(pixels, 100, 100, 100, 100));
+
+        assertEquals(List.of(
+                new DominantColor("#FF0000", 0.5f),
+                new DominantColor("#00FF00", 0.3f),
+                new DominantColor("#0000FF", 0.2f)), palette);
+    }
+
+    @Test
+    void sameImageGivesSamePaletteRegardlessOfParallelism() throws IOException {
+        SampledImage image = new PixelSampler(262144)
+                .sample(SamplePortraits.write(dir.resolve("portrait.jpg"), 600, 800));
+
+        List<DominantColor> single = extract(5, 1, image);
+        List<DominantColor> parallel = extract(5, 4, image);
+
+        assertEquals(single, parallel);
+        assertEquals(single, extract(5, 4, image));
+        assertEquals(5, single.size());
+        assertEquals(1.0, single.stream().mapToDouble(DominantColor::weight).sum(), 1e-4);
+        for (int i = 1; i < single.size(); i++) {
+            assertTrue(single.get(i - 1).weight() >= single.get(i).weight());
+        }
+    }
+
+    @Test
+    void dropsEmptyClusters() {
+        // 단색 이미지는 colors 설정과 무관하게 한 가지 색, 비중 1
+        int[] pixels = new int[64];
+        Arrays.fill(pixels, 0x336699);
+
+        assertEquals(List.of(new DominantColor("#336699", 1f)),
+                extract(DominantColorExtractor.MAX_COLORS, 0, new SampledImage(pixels, 8, 8, 8, 8)));
+    }
+
+    @Test
+    void rejectsColorCountOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new DominantColorExtractor(0, 65536, 12, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DominantColorExtractor(DominantColorExtractor.MAX_COLORS + 1, 65536, 12, 0));
+        new DominantColorExtractor(1, 65536, 12, 0).shutdown();
+        new DominantColorExtractor(DominantColorExtractor.MAX_COLORS, 65536, 12, 0).shutdown();
+    }
+
+    private static List<DominantColor> extract(int colorCount, int parallelism, SampledImage image) {
+        DominantColorExtractor extractor = new DominantColorExtractor(colorCount, 65536, 12, parallelism);
+        try {
+            return extractor.extract(image);
+        } finally {
+            extractor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 테스트·벤치마크용 합성 인물 사진: 배경 위에 피부색 타원(얼굴), 센서 노이즈 흉내
+ * (JMH 벤치마크도 jmh.includeTests 로 같은 사진을 쓴다)
+ */
+public final class SamplePortraits {
+
+    private static final Color BACKGROUND = new Color(70, 90, 120);
+    private static final Color SKIN = new Color(224, 172, 138);
+
+    private SamplePortraits() {
+    }
+
+    /**
+     * 고정 색조 사진을 JPEG 로 기록
+     */
+    public static Path write(Path target, int width, int height) throws IOException {
+        ImageIO.write(draw(width, height, BACKGROUND, SKIN, new Random(42)), "jpg", target.toFile());
+        return target;
+    }
+
+    /**
+     * seed 마다 배경·피부 색조와 노이즈가 다른 JPEG 사진 (부하 측정에서 분석 결과 캐시를 피하기 위함)
+     */
+    public static byte[] jpeg(int width, int height, int seed) throws IOException {
+        Random random = new Random(seed);
+        Color background = new Color(60 + random.nextInt(40), 80 + random.nextInt(40), 110 + random.nextInt(40));
+        Color skin = new Color(200 + random.nextInt(40), 150 + random.nextInt(40), 120 + random.nextInt(40));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(draw(width, height, background, skin, random), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage draw(int width, int height, Color background, Color skin, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, width, height);
+        g.setColor(skin);
+        g.fillOval(width / 4, height / 5, width / 2, height * 3 / 5);
+        g.dispose();
+
+        for (int i = 0; i < width * height / 20; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int rgb = image.getRGB(x, y);
+            int delta = random.nextInt(21) - 10;
+            int r = Math.max(0, Math.min(255, ((rgb >> 16) & 0xFF) + delta));
+            int gr = Math.max(0, Math.min(255, ((rgb >> 8) & 0xFF) + delta));
+            int b = Math.max(0, Math.min(255, (rgb & 0xFF) + delta));
+            image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+        }
+        return image;
+    }
+}
@@ -0,0 +1,74 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 이미지 1장당 디코딩 + 피부톤 분석 처리량 측정
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SkinToneAnalyzerBenchmark {
+
+    private static final int WARMUP_SECONDS = 3;
+    private static final int MEASURE_SECONDS = 10;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void imagesPerSecondPerCore() throws Exception {
+        Path image = SamplePortraits.write(tempDir.resolve("portrait.jpg"), 3000, 4000);
+
+        PixelSampler sampler = new PixelSampler(262144);
+        SkinToneAnalyzer analyzer = new SkinToneAnalyzer(400);
+        assertNotNull(analyzer.analyze(sampler.sample(image)).colorType());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        try {
+            run(executor, cores, sampler, analyzer, image, WARMUP_SECONDS);
+            long start = System.nanoTime();
+            long images = run(executor, cores, sampler, analyzer, image, MEASURE_SECONDS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            double throughput = images / seconds;
+            System.out.printf("SkinToneAnalyzer: %d images in %.1fs, %.1f images/sec, %.1f images/sec/core (%d cores)%n",
+                    images, seconds, throughput, throughput / cores, cores);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long run(ExecutorService executor, int threads, PixelSampler sampler, SkinToneAnalyzer analyzer,
+                     Path image, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    analyzer.analyze(sampler.sample(image));
+                    count++;
+                }
+                return count;
+            }));
+        }
+
+        long total = 0;
+        for (Future<Long> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+}
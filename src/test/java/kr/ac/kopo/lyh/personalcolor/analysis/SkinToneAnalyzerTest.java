@@ -0,0 +1,111 @@
+package kr.ac.kopo.lyh.personalcolor.analysis;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 피부톤 분석: L*·색상각·채도별 판정, 피부색 규칙의 경계값, 피부 픽셀이 부족할 때 중앙 영역 대체
+ */
+class SkinToneAnalyzerTest {
+
+    private static final int SKIN = 0xE0AC8A;
+    private static final int GRAY = 0x808080;
+
+    @Test
+    void classifiesByHueThenLightnessAndChroma() {
+        // 색상각 57° 이상 웜톤: 밝고 맑으면 봄, 깊고 차분하면 가을
+        assertEquals(ColorType.SPRING_WARM, SkinToneAnalyzer.classify(70f, 65f, 28f, 0.3f, false).colorType());
+        assertEquals(ColorType.AUTUMN_WARM, SkinToneAnalyzer.classify(55f, 60f, 18f, 0.3f, false).colorType());
+        // 쿨톤: 밝고 부드러우면 여름, 깊거나 선명하면 겨울
+        assertEquals(ColorType.SUMMER_COOL, SkinToneAnalyzer.classify(70f, 45f, 16f, 0.3f, false).colorType());
+        assertEquals(ColorType.WINTER_COOL, SkinToneAnalyzer.classify(55f, 45f, 28f, 0.3f, false).colorType());
+        // 경계값은 웜톤·봄 쪽
+        assertEquals(ColorType.SPRING_WARM, SkinToneAnalyzer.classify(
+                SkinToneAnalyzer.LIGHTNESS_THRESHOLD, SkinToneAnalyzer.WARM_HUE_THRESHOLD,
+                SkinToneAnalyzer.CHROMA_THRESHOLD, 0.3f, false).colorType());
+    }
+
+    @Test
+    void confidenceGrowsWithMarginAndDropsOnFallback() {
+        float clear = SkinToneAnalyzer.classify(70f, 65f, 28f, 0.3f, false).confidence();
+        float borderline = SkinToneAnalyzer.classify(62f, 58f, 22f, 0.3f, false).confidence();
+        float fallback = SkinToneAnalyzer.classify(70f, 65f, 28f, 0f, true).confidence();
+
+        assertTrue(clear > borderline);
+        assertTrue(clear > fallback);
+        for (float confidence : new float[]{clear, borderline, fallback}) {
+            assertTrue(confidence >= 0.5f && confidence <= 0.99f);
+        }
+    }
+
+    @Test
+    void skinRuleRejectsValuesAtThresholds() {
+        assertTrue(SkinToneAnalyzer.isSkin(SKIN));
+        assertTrue(SkinToneAnalyzer.isSkin(rgb(96, 60, 40)));
+        // R 95 이하
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(95, 60, 40)));
+        // G 40 이하, B 20 이하
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(200, 40, 30)));
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(200, 150, 20)));
+        // R - G 15 이하 (회색조)
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(200, 185, 150)));
+        assertFalse(SkinToneAnalyzer.isSkin(GRAY));
+        // R 이 B 이하 (푸른 배경)
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(70, 90, 120)));
+        // Cr 173 초과 (채도가 지나치게 높은 빨강)
+        assertFalse(SkinToneAnalyzer.isSkin(rgb(250, 60, 50)));
+    }
+
+    @Test
+    void usesSkinPixelsWhenEnough() {
+        ToneAnalysisResult result = new SkinToneAnalyzer(10).analyze(framedImage());
+
+        assertEquals(0.75f, result.skinRatio(), 1e-6f);
+        assertEquals(lightness(SKIN), result.lightness(), 1e-3f);
+    }
+
+    @Test
+    void fallsBackToCenterRegionBelowMinSkinPixels() {
+        // 피부 픽셀 48개 < 100 이므로 테두리 피부색 대신 중앙 회색 영역으로 판정
+        ToneAnalysisResult result = new SkinToneAnalyzer(100).analyze(framedImage());
+
+        assertEquals(0.75f, result.skinRatio(), 1e-6f);
+        assertEquals(lightness(GRAY), result.lightness(), 1e-3f);
+        assertEquals(0f, result.chroma(), 0.1f);
+    }
+
+    @Test
+    void rejectsEmptyImage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SkinToneAnalyzer(10).analyze(new SampledImage(new int[0], 0, 0, 0, 0)));
+    }
+
+    /**
+     * 8x8: 중앙 4x4 는 회색, 나머지 48픽셀은 피부색
+     */
+    private static SampledImage framedImage() {
+        int[] pixels = new int[64];
+        Arrays.fill(pixels, SKIN);
+        for (int y = 2; y < 6; y++) {
+            Arrays.fill(pixels, y * 8 + 2, y * 8 + 6, GRAY);
+        }
+        return new SampledImage(pixels, 8, 8, 8, 8);
+    }
+
+    private static float lightness(int rgb) {
+        float[] lab = new float[3];
+        CieLab.rgbToLab(rgb, lab, 0);
+        return lab[0];
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+}
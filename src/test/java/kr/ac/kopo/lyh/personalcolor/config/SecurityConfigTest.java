@@ -0,0 +1,98 @@
+package kr.ac.kopo.lyh.personalcolor.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+/**
+ * 지표 수집 경로(/actuator/health, /actuator/prometheus) 접근 제어
+ * 관리 포트(management.server.port)로 들어온 요청만 로그인 없이 허용하고, 서비스 포트로 들어오면 로그인 필요
+ */
+@ActiveProfiles("h2")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:security-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "server.port=8080",
+        "management.server.port=8081"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    private static final String[] SCRAPE_PATHS = {"/actuator/health", "/actuator/prometheus"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapePathsArePermittedOnManagementPort() throws Exception {
+        for (String path : SCRAPE_PATHS) {
+            mockMvc.perform(get(path).with(localPort(8081)))
+                    .andExpect(notAskedToLogIn());
+        }
+    }
+
+    @Test
+    void scrapePathsNeedLoginOnServerPort() throws Exception {
+        for (String path : SCRAPE_PATHS) {
+            mockMvc.perform(get(path).with(localPort(8080)))
+                    .andExpect(redirectedUrl("/login"));
+        }
+    }
+
+    @Test
+    void otherActuatorPathsNeedLoginOnManagementPort() throws Exception {
+        mockMvc.perform(get("/actuator/metrics").with(localPort(8081)))
+                .andExpect(redirectedUrl("/login"));
+    }
+
+    /**
+     * 관리 포트를 서비스 포트와 같게 설정하면 어느 요청도 관리 포트 요청으로 보지 않는다
+     */
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:security-same-port-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "management.server.port=8080"
+    })
+    class SamePort {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void scrapePathsNeedLogin() throws Exception {
+            for (String path : SCRAPE_PATHS) {
+                mockMvc.perform(get(path).with(localPort(8080)))
+                        .andExpect(redirectedUrl("/login"));
+            }
+        }
+    }
+
+    private static RequestPostProcessor localPort(int port) {
+        return request -> {
+            request.setLocalPort(port);
+            request.setServerPort(port);
+            return request;
+        };
+    }
+
+    // 보안 필터를 통과했는지만 확인 (관리 서버는 테스트의 MockMvc 와 다른 컨텍스트라 응답 코드는 보지 않는다)
+    private static ResultMatcher notAskedToLogIn() {
+        return result -> {
+            assertNull(result.getResponse().getRedirectedUrl());
+            assertNotEquals(401, result.getResponse().getStatus());
+            assertNotEquals(403, result.getResponse().getStatus());
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 파일 응답: Range / If-Range 처리(현재 버전이면 부분 응답, 다른 버전이면 전체 응답), 축소본 준비 전 원본 대체, 잘못된 크기 400·없는 파일 404
+ */
+class FileControllerTest {
+
+    private static final String HASH = "a".repeat(64);
+    private static final String FILE_NAME = HASH + ".jpg";
+    private static final String ETAG = "\"" + HASH + "\"";
+
+    @TempDir
+    Path dir;
+
+    private final byte[] content = new byte[1000];
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(dir.resolve(FILE_NAME), content);
+
+        FileStorageService storage = mock(FileStorageService.class);
+        when(storage.getExistingFilePath(FILE_NAME)).thenReturn(file);
+        when(storage.contentHashOf(FILE_NAME)).thenReturn(HASH);
+        when(storage.getExistingFilePath("missing.jpg")).thenThrow(new IllegalArgumentException("파일을 찾을 수 없습니다"));
+        ImageDerivativeService derivatives = mock(ImageDerivativeService.class);
+        // app.upload.derivative-sizes 기본값, 축소본은 아직 준비되지 않은 상태
+        when(derivatives.getSizes()).thenReturn(Set.of(128, 512));
+        when(derivatives.resolve(file, 128)).thenReturn(file);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(storage, derivatives))
+                .build();
+    }
+
+    @Test
+    void servesRangeWhenIfRangeMatches() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/1000"))
+                .andExpect(content().bytes(Arrays.copyOf(content, 10)));
+    }
+
+    @Test
+    void servesWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"older-version\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void ignoresMalformedRange() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=abc"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void servesOriginalUntilDerivativeIsReady() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME).param("size", "128"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void rejectsUnsupportedSizeWithBadRequest() throws Exception {
+        mockMvc.perform(get("/files/" + FILE_NAME).param("size", "320"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void answersNotFoundForMissingFile() throws Exception {
+        mockMvc.perform(get("/files/missing.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
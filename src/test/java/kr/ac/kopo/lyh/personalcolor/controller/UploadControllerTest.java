@@ -0,0 +1,153 @@
+package kr.ac.kopo.lyh.personalcolor.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Part;
+import kr.ac.kopo.lyh.personalcolor.config.TimedMultipartResolver;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisListItem;
+import kr.ac.kopo.lyh.personalcolor.service.AnalysisJobService;
+import kr.ac.kopo.lyh.personalcolor.service.BatchAnalysisService;
+import kr.ac.kopo.lyh.personalcolor.service.ColorAnalysisService;
+import kr.ac.kopo.lyh.personalcolor.service.FileStorageService;
+import kr.ac.kopo.lyh.personalcolor.service.UploadPipelineMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 업로드 경로의 단계별 시간·거절 사유 지표 기록과 히스토리 CSV 내보내기(사용자가 정한 파일 이름의 수식 실행 방지)
+ */
+class UploadControllerTest {
+
+    private static final LocalDateTime ANALYZED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final ColorAnalysisService colorAnalysisService = mock(ColorAnalysisService.class);
+    private final FileStorageService storage = mock(FileStorageService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UploadPipelineMetrics metrics = new UploadPipelineMetrics(registry, storage);
+    private final MockHttpSession session = new MockHttpSession();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UploadController controller = new UploadController(storage, colorAnalysisService,
+                mock(AnalysisJobService.class), mock(BatchAnalysisService.class), metrics);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        session.setAttribute(SessionUser.SESSION_KEY, new SessionUser(1L, "upload@example.com", "업로드", Gender.WOMAN));
+    }
+
+    @Test
+    void uploadRecordsStoreStage() throws Exception {
+        when(storage.storeFile(any())).thenReturn("stored.jpg");
+        when(colorAnalysisService.analyzeImage(any(), any(), any())).thenReturn(
+                ColorAnalysis.builder().id(7L).colorType(ColorType.SPRING_WARM).confidence(0.8f).build());
+
+        mockMvc.perform(multipart("/upload").file(image("image/jpeg")).session(session))
+                .andExpect(status().isOk());
+
+        assertEquals(1, registry.get("upload.stage").tag("stage", "store").timer().count());
+        assertTrue(registry.find("upload.rejected").counters().isEmpty());
+    }
+
+    @Test
+    void uploadRecordsRejectionReasons() throws Exception {
+        mockMvc.perform(multipart("/upload").file(image("image/jpeg")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(multipart("/upload").file(image("text/plain")).session(session))
+                .andExpect(status().isBadRequest());
+        when(storage.storeFile(any())).thenThrow(new IllegalArgumentException("지원하지 않는 이미지 형식입니다."));
+        mockMvc.perform(multipart("/upload").file(image("image/jpeg")).session(session))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, rejected("unauthenticated"));
+        assertEquals(1, rejected("not_image"));
+        assertEquals(1, rejected("invalid_file"));
+    }
+
+    @Test
+    void multipartResolverRecordsParseStageAndTooLarge() {
+        TimedMultipartResolver resolver = new TimedMultipartResolver(metrics);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+        request.setContentType("multipart/form-data; boundary=x");
+        request.addPart(new MockPart("file", "face.jpg", new byte[]{1, 2, 3}));
+
+        resolver.resolveMultipart(request);
+        assertEquals(1, registry.get("upload.stage").tag("stage", "parse").timer().count());
+
+        // 컨테이너가 크기 제한 초과로 파싱을 거절한 경우
+        MockHttpServletRequest tooLarge = new MockHttpServletRequest("POST", "/upload") {
+            @Override
+            public Collection<Part> getParts() {
+                throw new IllegalStateException("The field file exceeds its maximum permitted size of 10485760 bytes.");
+            }
+        };
+        tooLarge.setContentType("multipart/form-data; boundary=x");
+        assertThrows(MaxUploadSizeExceededException.class, () -> resolver.resolveMultipart(tooLarge));
+        assertEquals(1, rejected("too_large"));
+    }
+
+    @Test
+    void exportEscapesFormulaFileNames() throws Exception {
+        List<String> names = List.of("=HYPERLINK(\"http://evil\")", "+1", "-2", "@SUM(A1)", "\tcmd", "\rcmd",
+                "photo-1.jpg", "");
+        when(colorAnalysisService.forEachHistoryItem(any(), any())).thenAnswer(invocation -> {
+            Consumer<AnalysisListItem> consumer = invocation.getArgument(1);
+            for (int i = 0; i < names.size(); i++) {
+                consumer.accept(new AnalysisListItem((long) i, ColorType.SPRING_WARM, 0.5f, names.get(i),
+                        "stored.jpg", ANALYZED_AT));
+            }
+            return (long) names.size();
+        });
+
+        MvcResult started = mockMvc.perform(get("/history/export").session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // 값 안의 CR 때문에 줄 구분은 \n 으로만
+        List<String> fileNames = Arrays.stream(csv.split("\n")).skip(1)
+                .map(line -> line.substring(line.indexOf(",\"") + 1))
+                .toList();
+        assertEquals(List.of("\"'=HYPERLINK(\"\"http://evil\"\")\"", "\"'+1\"", "\"'-2\"", "\"'@SUM(A1)\"",
+                "\"'\tcmd\"", "\"'\rcmd\"", "\"photo-1.jpg\"", "\"\""), fileNames);
+    }
+
+    private double rejected(String reason) {
+        return registry.get("upload.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static MockMultipartFile image(String contentType) {
+        return new MockMultipartFile("file", "face.jpg", contentType, new byte[]{1, 2, 3});
+    }
+}
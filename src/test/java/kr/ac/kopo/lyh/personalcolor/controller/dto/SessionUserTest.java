@@ -0,0 +1,31 @@
+package kr.ac.kopo.lyh.personalcolor.controller.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionUserTest {
+
+    @Test
+    void serializesCompactly() throws IOException, ClassNotFoundException {
+        SessionUser user = new SessionUser(42L, "someone@example.com", "홍길동", Gender.WOMAN);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(user);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(user, in.readObject());
+        }
+
+        // 기본 record 직렬화(필드 설명자 포함)는 약 370바이트
+        assertTrue(bytes.size() < 160, "직렬화 크기: " + bytes.size());
+    }
+}
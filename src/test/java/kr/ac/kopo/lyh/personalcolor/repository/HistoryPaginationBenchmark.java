@@ -0,0 +1,149 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * /history 페이징 비교: OFFSET + COUNT(*) vs (analyzed_at, id) keyset
+ * H2 인메모리 DB에 100만 행(한 사용자에 50만 행)을 채우고 페이지 깊이별 지연 시간을 측정한다.
+ * 쿼리는 ColorAnalysisRepository 의 JPQL 이 생성하는 SQL 과 같은 형태이다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class HistoryPaginationBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int REPEAT = 20;
+    private static final int[] PAGES = {0, 100, 1_000, 10_000, 49_999};
+    private static final long HEAVY_USER = 1L;
+
+    private static final String SELECT = "SELECT id, color_type, description, confidence, stored_file_name, "
+            + "dominant_colors, analyzed_at FROM color_analysis ";
+
+    @Test
+    void compareOffsetAndKeyset() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:history;DB_CLOSE_DELAY=-1")) {
+            seed(connection);
+
+            try (PreparedStatement offset = connection.prepareStatement(SELECT
+                    + "WHERE user_id = ? ORDER BY analyzed_at DESC, id DESC LIMIT ? OFFSET ?");
+                 PreparedStatement count = connection.prepareStatement(
+                         "SELECT COUNT(*) FROM color_analysis WHERE user_id = ?");
+                 PreparedStatement keyset = connection.prepareStatement(SELECT
+                         + "WHERE user_id = ? AND (analyzed_at < ? OR (analyzed_at = ? AND id < ?)) "
+                         + "ORDER BY analyzed_at DESC, id DESC LIMIT ?")) {
+
+                for (int page : PAGES) {
+                    // 해당 페이지 직전 행을 커서로 사용 (측정 대상 아님)
+                    Cursor cursor = page == 0 ? null : cursorAt(offset, page * PAGE_SIZE - 1);
+
+                    double offsetMillis = median(() -> {
+                        offset.setLong(1, HEAVY_USER);
+                        offset.setInt(2, PAGE_SIZE);
+                        offset.setInt(3, page * PAGE_SIZE);
+                        drain(offset);
+                        count.setLong(1, HEAVY_USER);
+                        drain(count);
+                    });
+                    double keysetMillis = median(() -> {
+                        if (cursor == null) {
+                            offset.setLong(1, HEAVY_USER);
+                            offset.setInt(2, PAGE_SIZE + 1);
+                            offset.setInt(3, 0);
+                            drain(offset);
+                            return;
+                        }
+                        keyset.setLong(1, HEAVY_USER);
+                        keyset.setTimestamp(2, cursor.analyzedAt());
+                        keyset.setTimestamp(3, cursor.analyzedAt());
+                        keyset.setLong(4, cursor.id());
+                        keyset.setInt(5, PAGE_SIZE + 1);
+                        drain(keyset);
+                    });
+
+                    System.out.printf("page=%6d offset+count: %8.3fms   keyset: %6.3fms%n",
+                            page, offsetMillis, keysetMillis);
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE color_analysis ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id BIGINT NOT NULL, "
+                    + "original_file_name VARCHAR(255) NOT NULL, "
+                    + "stored_file_name VARCHAR(255) NOT NULL, "
+                    + "color_type VARCHAR(20) NOT NULL, "
+                    + "description VARCHAR(1000), "
+                    + "dominant_colors VARCHAR(512), "
+                    + "confidence REAL, "
+                    + "analyzed_at TIMESTAMP(6))");
+
+            long start = System.nanoTime();
+            // 짝수 행은 무거운 사용자 한 명, 나머지는 1000명에게 분산
+            statement.execute("INSERT INTO color_analysis (user_id, original_file_name, stored_file_name, "
+                    + "color_type, description, dominant_colors, confidence, analyzed_at) "
+                    + "SELECT CASE WHEN MOD(X, 2) = 0 THEN 1 ELSE 2 + MOD(X, 1000) END, "
+                    + "'photo.jpg', CONCAT(X, '.jpg'), 'SPRING_WARM', '따뜻하고 생기있는 색상', "
+                    + "'[{\"hex\":\"#E8C4A8\",\"weight\":0.5}]', 0.8, "
+                    + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') "
+                    + "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+            statement.execute("CREATE INDEX idx_color_analysis_user_analyzed "
+                    + "ON color_analysis (user_id, analyzed_at, id)");
+            statement.execute("ANALYZE");
+            System.out.printf("seeded %d rows in %.1fs%n", ROWS, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private record Cursor(Timestamp analyzedAt, long id) {
+    }
+
+    private static Cursor cursorAt(PreparedStatement offset, int rowOffset) throws SQLException {
+        offset.setLong(1, HEAVY_USER);
+        offset.setInt(2, 1);
+        offset.setInt(3, rowOffset);
+        try (ResultSet rs = offset.executeQuery()) {
+            rs.next();
+            return new Cursor(rs.getTimestamp("analyzed_at"), rs.getLong("id"));
+        }
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getLong(1);
+            }
+        }
+    }
+
+    private interface Query {
+        void run() throws SQLException;
+    }
+
+    private static double median(Query query) throws SQLException {
+        // 워밍업
+        for (int i = 0; i < 3; i++) {
+            query.run();
+        }
+        double[] millis = new double[REPEAT];
+        for (int i = 0; i < REPEAT; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[REPEAT / 2];
+    }
+}
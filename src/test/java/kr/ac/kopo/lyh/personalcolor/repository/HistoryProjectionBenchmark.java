@@ -0,0 +1,107 @@
+package kr.ac.kopo.lyh.personalcolor.repository;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * 히스토리 한 페이지 조회 비용 비교: 엔티티 + OFFSET/COUNT vs 목록용 레코드 프로젝션 + keyset
+ * 페이지당 힙 할당량(스레드 할당 바이트)과 지연 시간을 측정한다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate=INFO",
+        "logging.level.org.springframework=INFO",
+        "debug=false"
+})
+class HistoryProjectionBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareEntityAndProjectionPages() {
+        User user = entityManager.persistFlushFind(User.builder()
+                .email("bench@example.com")
+                .name("bench")
+                .password("x")
+                .gender(Gender.WOMAN)
+                .build());
+        // ID 는 시퀀스 대신 직접 지정 (조회 전용 데이터)
+        jdbcTemplate.update("INSERT INTO color_analysis (id, user_id, original_file_name, stored_file_name, "
+                + "color_type, description, dominant_colors, confidence, analyzed_at) "
+                + "SELECT X, ?, 'photo.jpg', CONCAT(X, '.jpg'), 'SPRING_WARM', REPEAT('설명', 200), "
+                + "'[{\"hex\":\"#E8C4A8\",\"weight\":0.5},{\"hex\":\"#6B4E3D\",\"weight\":0.3}]', 0.8, "
+                + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') FROM SYSTEM_RANGE(1, ?)", user.getId(), ROWS);
+        entityManager.clear();
+
+        // 중간 깊이 페이지: 직전 페이지 마지막 행을 커서로 사용 (측정 대상 아님)
+        int page = ROWS / PAGE_SIZE / 2;
+        AnalysisListItem cursor = colorAnalysisRepository.findHistoryFirst(user.getId(),
+                PageRequest.of(page * PAGE_SIZE - 1, 1)).get(0);
+
+        Result entities = measure(() -> colorAnalysisRepository.findByUserOrderByAnalyzedAtDesc(user,
+                PageRequest.of(page, PAGE_SIZE)).getContent().size());
+        Result projections = measure(() -> colorAnalysisRepository.findHistoryAfter(user.getId(),
+                cursor.analyzedAt(), cursor.id(), PageRequest.of(0, PAGE_SIZE + 1)).size());
+
+        System.out.printf("page=%d (%d rows, page size %d)%n", page, ROWS, PAGE_SIZE);
+        System.out.printf("entity+offset+count : %8.1f KB/page, p50=%6.2fms%n", entities.kilobytes, entities.p50);
+        System.out.printf("projection+keyset   : %8.1f KB/page, p50=%6.2fms%n", projections.kilobytes, projections.p50);
+    }
+
+    private interface PageQuery {
+        int run();
+    }
+
+    private record Result(double kilobytes, double p50) {
+    }
+
+    private Result measure(PageQuery query) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20; i++) {
+            query.run();
+            entityManager.clear();
+        }
+
+        double[] millis = new double[ITERATIONS];
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            // 페이지 요청마다 새 영속성 컨텍스트를 쓰는 실제 요청과 같게
+            entityManager.clear();
+        }
+        Arrays.sort(millis);
+        return new Result(allocated / 1024.0 / ITERATIONS, millis[ITERATIONS / 2]);
+    }
+}
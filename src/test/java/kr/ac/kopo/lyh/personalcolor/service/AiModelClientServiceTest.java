@@ -0,0 +1,224 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.exception.AiModelUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로컬 스텁 서버(com.sun.net.httpserver)로 AI 서버 클라이언트의 재시도·회로 차단·헤지와
+ * 묶음 처리기(ModelBatchDispatcher)의 요청 병합 동작 확인
+ */
+class AiModelClientServiceTest {
+
+    private static final WorkerThreadFactories THREADS = new WorkerThreadFactories(new StandardEnvironment());
+
+    private static final String OK_BODY =
+            "{\"color_type\":\"autumn_warm\",\"confidence\":0.82,\"dominant_colors\":[\"#C08060\",\"#402010\"]}";
+
+    private interface Behavior {
+        void respond(int call, HttpExchange exchange) throws IOException;
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private volatile Behavior behavior;
+    private Path image;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/predict", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            behavior.respond(calls.incrementAndGet(), exchange);
+        });
+        server.createContext("/predict/batch", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            int parts = body.split("name=\"files\"", -1).length - 1;
+            batchSizes.add(parts);
+            send(exchange, 200, "{\"predictions\":[" + String.join(",", Collections.nCopies(parts, OK_BODY)) + "]}");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        image = tempDir.resolve("face.jpg");
+        Files.write(image, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x00});
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void parsesPrediction() throws IOException {
+        behavior = (call, exchange) -> send(exchange, 200, OK_BODY);
+
+        ImageAnalysis analysis = client(Duration.ZERO, 5).analyze(image);
+
+        assertEquals(ColorAnalysis.ColorType.AUTUMN_WARM, analysis.colorType());
+        assertEquals(0.82f, analysis.confidence(), 1e-6);
+        assertEquals(2, analysis.dominantColors().size());
+    }
+
+    @Test
+    void retriesServerErrors() throws IOException {
+        behavior = (call, exchange) -> send(exchange, call < 3 ? 503 : 200, call < 3 ? "{}" : OK_BODY);
+
+        ImageAnalysis analysis = client(Duration.ZERO, 5).analyze(image);
+
+        assertEquals(ColorAnalysis.ColorType.AUTUMN_WARM, analysis.colorType());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() {
+        behavior = (call, exchange) -> send(exchange, 500, "{}");
+        AiModelClientService client = client(Duration.ZERO, 2);
+
+        // 요청 2건(각 3회 시도) 실패 → 회로 열림 → 세 번째는 서버를 호출하지 않음
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+        int callsBeforeOpen = calls.get();
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+
+        assertEquals(6, callsBeforeOpen);
+        assertEquals(callsBeforeOpen, calls.get());
+    }
+
+    @Test
+    void opensCircuitWhenStillThrottledAfterRetries() {
+        behavior = (call, exchange) -> send(exchange, 429, "{}");
+        AiModelClientService client = client(Duration.ZERO, 2);
+
+        // 재시도 후에도 429 이면 실패로 집계
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+        int callsBeforeOpen = calls.get();
+        assertThrows(AiModelUnavailableException.class, () -> client.analyze(image));
+
+        assertEquals(6, callsBeforeOpen);
+        assertEquals(callsBeforeOpen, calls.get());
+    }
+
+    @Test
+    void hedgesSlowRequest() throws IOException {
+        behavior = (call, exchange) -> {
+            if (call == 1) {
+                sleep(2000);
+            }
+            send(exchange, 200, OK_BODY);
+        };
+
+        long start = System.nanoTime();
+        ImageAnalysis analysis = client(Duration.ofMillis(100), 5).analyze(image);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(ColorAnalysis.ColorType.AUTUMN_WARM, analysis.colorType());
+        assertTrue(elapsedMillis < 1500, "헤지 응답을 기다리지 않음: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void abortsLosingHedgeRequest() throws IOException {
+        behavior = (call, exchange) -> {
+            if (call == 1) {
+                sleep(3000);
+            }
+            send(exchange, 200, OK_BODY);
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        client(registry, Duration.ofMillis(100), 5).analyze(image);
+
+        // 늦은 첫 요청은 서버 응답(3초)을 기다리지 않고 연결을 끊어 동시 요청 자리를 바로 반환
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (registry.get("ai.model.in.flight").gauge().value() > 0) {
+            assertTrue(System.nanoTime() < deadline, "진 헤지 요청이 중단되지 않음");
+            sleep(10);
+        }
+        assertEquals(1, registry.get("ai.model.requests").tag("outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    void dispatcherCoalescesConcurrentRequests() throws Exception {
+        behavior = (call, exchange) -> send(exchange, 200, OK_BODY);
+        ModelBatchDispatcher dispatcher = new ModelBatchDispatcher(client(Duration.ZERO, 5),
+                new SimpleMeterRegistry(), THREADS, 8, Duration.ofMillis(200), 100, 2);
+        try {
+            List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(dispatcher.submit(image));
+            }
+            for (CompletableFuture<Map<String, Object>> future : futures) {
+                assertEquals("autumn_warm", future.get(5, TimeUnit.SECONDS).get("color_type"));
+            }
+
+            // 8건이 한 번의 일괄 호출로 전송됨
+            assertEquals(List.of(8), batchSizes);
+            assertEquals(0, calls.get());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private AiModelClientService client(Duration hedgeDelay, int failureThreshold) {
+        return client(new SimpleMeterRegistry(), hedgeDelay, failureThreshold);
+    }
+
+    private AiModelClientService client(SimpleMeterRegistry registry, Duration hedgeDelay, int failureThreshold) {
+        return new AiModelClientService(registry, THREADS,
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/predict",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/predict/batch",
+                Duration.ofSeconds(1), Duration.ofSeconds(5), 4, Duration.ofMillis(200),
+                3, Duration.ofMillis(10), hedgeDelay, failureThreshold, Duration.ofMinutes(1));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
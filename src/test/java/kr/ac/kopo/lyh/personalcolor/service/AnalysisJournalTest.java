@@ -0,0 +1,76 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AnalysisJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversEntriesWithEscapedFields() throws IOException {
+        AnalysisJournal journal = new AnalysisJournal(dir, 1 << 20, false);
+        journal.recover();
+        journal.append(1, analysis(101L, "탭\t줄바꿈\n역슬래시\\.jpg", null));
+        journal.append(2, analysis(102L, "photo.jpg", "설명"));
+        journal.close();
+
+        List<AnalysisJournal.Entry> entries = new AnalysisJournal(dir, 1 << 20, false).recover();
+
+        assertEquals(2, entries.size());
+        assertEquals(101L, entries.get(0).analysis().getId());
+        assertEquals("탭\t줄바꿈\n역슬래시\\.jpg", entries.get(0).analysis().getOriginalFileName());
+        assertNull(entries.get(0).analysis().getDescription());
+        assertEquals(7L, entries.get(1).analysis().getUser().getId());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30), entries.get(1).analysis().getAnalyzedAt());
+    }
+
+    @Test
+    void releasesFullyPersistedSegmentsAndSkipsTornLine() throws IOException {
+        // 세그먼트 크기를 작게 하여 기록마다 새 세그먼트로 넘어가게 한다
+        AnalysisJournal journal = new AnalysisJournal(dir, 1, false);
+        journal.recover();
+        for (long seq = 1; seq <= 3; seq++) {
+            journal.append(seq, analysis(100 + seq, "photo.jpg", "설명"));
+        }
+        journal.release(2);
+        journal.close();
+        try (var files = Files.list(dir)) {
+            Path last = files.max(Path::compareTo).orElseThrow();
+            Files.writeString(last, "4\t104\t7\tpho", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        List<AnalysisJournal.Entry> entries = new AnalysisJournal(dir, 1, false).recover();
+
+        assertEquals(1, entries.size());
+        assertEquals(3, entries.get(0).seq());
+    }
+
+    private static ColorAnalysis analysis(long id, String originalFileName, String description) {
+        return ColorAnalysis.builder()
+                .id(id)
+                .user(User.builder().id(7L).build())
+                .originalFileName(originalFileName)
+                .storedFileName(id + ".jpg")
+                .colorType(ColorAnalysis.ColorType.SUMMER_COOL)
+                .description(description)
+                .dominantColors("[{\"hex\":\"#E8C4A8\",\"weight\":0.5}]")
+                .confidence(0.75f)
+                .analyzedAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+                .build();
+    }
+}
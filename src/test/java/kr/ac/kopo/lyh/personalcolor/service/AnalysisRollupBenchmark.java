@@ -0,0 +1,98 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisRollupRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.JobLockRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 1년치 집계 구간(일 단위 365일 + 최근 7일 시간 단위)에 대한 기간 추이 조회 지연 시간
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate=INFO",
+        "logging.level.org.springframework=INFO",
+        "debug=false"
+})
+class AnalysisRollupBenchmark {
+
+    private static final int REPEAT = 50;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private AnalysisRollupRepository rollupRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void yearRangeTrend() {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime hourlyFrom = today.minusDays(7);
+        List<AnalysisRollup> rollups = new ArrayList<>();
+        for (LocalDateTime day = today.minusDays(365); day.isBefore(hourlyFrom); day = day.plusDays(1)) {
+            addBuckets(rollups, AnalysisRollup.Granularity.DAILY, day, 240);
+        }
+        for (LocalDateTime hour = hourlyFrom; hour.isBefore(today.plusDays(1)); hour = hour.plusHours(1)) {
+            addBuckets(rollups, AnalysisRollup.Granularity.HOURLY, hour, 10);
+        }
+        rollupRepository.saveAll(rollups);
+        entityManager.flush();
+        entityManager.clear();
+
+        AnalysisRollupService service = new AnalysisRollupService(colorAnalysisRepository, rollupRepository,
+                jobLockRepository, transactionManager, Duration.ofDays(7), false);
+        LocalDateTime from = today.minusDays(365);
+        LocalDateTime to = today.plusDays(1);
+
+        for (int i = 0; i < 10; i++) {
+            service.getTrend(from, to, AnalysisRollup.Granularity.DAILY);
+            entityManager.clear();
+        }
+        double[] millis = new double[REPEAT];
+        AnalysisTrend trend = null;
+        for (int i = 0; i < REPEAT; i++) {
+            long start = System.nanoTime();
+            trend = service.getTrend(from, to, AnalysisRollup.Granularity.DAILY);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            entityManager.clear();
+        }
+        Arrays.sort(millis);
+
+        System.out.printf("rollup rows=%d, buckets=%d, total=%d%n", rollups.size(), trend.buckets().size(), trend.total());
+        System.out.printf("year trend: p50=%.2fms p95=%.2fms%n", millis[REPEAT / 2], millis[REPEAT * 95 / 100]);
+    }
+
+    private static void addBuckets(List<AnalysisRollup> rollups, AnalysisRollup.Granularity granularity,
+                                   LocalDateTime start, long count) {
+        for (ColorAnalysis.ColorType colorType : ColorAnalysis.ColorType.values()) {
+            rollups.add(new AnalysisRollup(granularity, start, colorType, count, count * 0.8, count));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup;
+import kr.ac.kopo.lyh.personalcolor.entity.AnalysisRollup.Granularity;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisRollupRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.JobLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 시간 단위 → 일 단위 압축과 두 단위에 걸친 기간 추이 조회
+ * 압축 트랜잭션이 실제로 커밋되어야 여러 서버 동시 압축을 흉내낼 수 있으므로 테스트 트랜잭션은 쓰지 않는다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnalysisRollupServiceTest {
+
+    private final LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+    private final LocalDateTime oldDay = today.minusDays(10);
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private AnalysisRollupRepository rollupRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void compactFoldsExpiredHoursIntoDays() {
+        rollupRepository.saveAll(List.of(
+                rollup(Granularity.HOURLY, oldDay.plusHours(9), ColorType.SPRING_WARM, 3, 2.4),
+                rollup(Granularity.HOURLY, oldDay.plusHours(15), ColorType.SPRING_WARM, 2, 1.0),
+                rollup(Granularity.HOURLY, oldDay.plusHours(15), ColorType.WINTER_COOL, 1, 0.9),
+                // 이전 압축으로 이미 있는 일 단위 구간에 더해진다
+                rollup(Granularity.DAILY, oldDay, ColorType.SPRING_WARM, 10, 8.0),
+                // 보관 기간 이내는 그대로
+                rollup(Granularity.HOURLY, today.minusDays(1).plusHours(12), ColorType.AUTUMN_WARM, 4, 3.2)));
+
+        service().compact();
+
+        assertTrue(rollupRepository.findByGranularityBefore(Granularity.HOURLY, today.minusDays(7)).isEmpty());
+        AnalysisRollup spring = daily(oldDay, ColorType.SPRING_WARM);
+        assertEquals(15, spring.getAnalysisCount());
+        assertEquals(11.4, spring.getConfidenceSum(), 1e-9);
+        assertEquals(15, spring.getConfidenceCount());
+        assertEquals(1, daily(oldDay, ColorType.WINTER_COOL).getAnalysisCount());
+        assertTrue(rollupRepository.existsById(new AnalysisRollup.Key(Granularity.HOURLY,
+                today.minusDays(1).plusHours(12), ColorType.AUTUMN_WARM)));
+
+        // 압축할 구간이 없으면 변화 없음
+        service().compact();
+        assertEquals(15, daily(oldDay, ColorType.SPRING_WARM).getAnalysisCount());
+    }
+
+    @Test
+    void concurrentCompactionsCountEachHourOnce() throws Exception {
+        List<AnalysisRollup> hourly = new ArrayList<>();
+        for (int day = 8; day < 20; day++) {
+            for (int hour = 0; hour < 24; hour += 6) {
+                hourly.add(rollup(Granularity.HOURLY, today.minusDays(day).plusHours(hour), ColorType.SPRING_WARM, 1, 0.5));
+            }
+        }
+        rollupRepository.saveAll(hourly);
+
+        // 서버 4대가 동시에 압축
+        int nodes = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            AnalysisRollupService node = service();
+            futures.add(executor.submit(() -> {
+                start.await();
+                node.compact();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        List<AnalysisRollup> rollups = rollupRepository.findAll();
+        assertEquals(12, rollups.size());
+        for (AnalysisRollup rollup : rollups) {
+            assertEquals(Granularity.DAILY, rollup.getGranularity());
+            assertEquals(4, rollup.getAnalysisCount());
+        }
+    }
+
+    @Test
+    void trendSpansHourlyAndDailyBuckets() {
+        LocalDateTime yesterday = today.minusDays(1);
+        rollupRepository.saveAll(List.of(
+                rollup(Granularity.DAILY, oldDay, ColorType.SPRING_WARM, 10, 8.0),
+                rollup(Granularity.DAILY, oldDay, ColorType.WINTER_COOL, 5, 3.0),
+                rollup(Granularity.HOURLY, yesterday.plusHours(9), ColorType.SPRING_WARM, 2, 1.8),
+                rollup(Granularity.HOURLY, yesterday.plusHours(15), ColorType.AUTUMN_WARM, 3, 2.1)));
+        AnalysisRollupService service = service();
+
+        AnalysisTrend daily = service.getTrend(oldDay, today, Granularity.DAILY);
+        assertEquals(20, daily.total());
+        assertEquals(12L, daily.byColorType().get(ColorType.SPRING_WARM));
+        assertEquals(14.9 / 20, daily.averageConfidence(), 1e-9);
+        assertEquals(List.of(oldDay, yesterday), daily.buckets().stream().map(AnalysisTrend.Bucket::start).toList());
+        assertEquals(15, daily.buckets().get(0).total());
+        assertEquals(5, daily.buckets().get(1).total());
+
+        // 시간 단위로 요청해도 압축된 날은 일 단위 구간 하나
+        AnalysisTrend hourly = service.getTrend(oldDay, today, Granularity.HOURLY);
+        assertEquals(List.of(oldDay, yesterday.plusHours(9), yesterday.plusHours(15)),
+                hourly.buckets().stream().map(AnalysisTrend.Bucket::start).toList());
+        assertEquals(20, hourly.total());
+
+        // 조회 범위 밖 구간은 제외
+        assertEquals(5, service.getTrend(oldDay.plusDays(1), today, Granularity.DAILY).total());
+    }
+
+    private AnalysisRollupService service() {
+        return new AnalysisRollupService(colorAnalysisRepository, rollupRepository, jobLockRepository,
+                transactionManager, Duration.ofDays(7), false);
+    }
+
+    private AnalysisRollup daily(LocalDateTime day, ColorType colorType) {
+        return rollupRepository.findById(new AnalysisRollup.Key(Granularity.DAILY, day, colorType)).orElseThrow();
+    }
+
+    private static AnalysisRollup rollup(Granularity granularity, LocalDateTime start, ColorType colorType,
+                                         long count, double confidenceSum) {
+        return new AnalysisRollup(granularity, start, colorType, count, confidenceSum, count);
+    }
+}
@@ -0,0 +1,192 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SignupForm;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.exception.AnalysisQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 지연 저장 버퍼: 모아서 저장 후 이벤트 발행, 저장 불가 건 버림, 가득 찼을 때 거절·지연 지표, 기록 복구 (인메모리 H2)
+ * 애플리케이션의 버퍼는 꺼져 있으므로 설정별 버퍼를 직접 만들어 확인한다.
+ */
+@ActiveProfiles("h2")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class AnalysisWriteBehindBufferTest {
+
+    private static final long MISSING_USER_ID = 999_999_999L;
+
+    @TempDir
+    Path journalDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AnalysisWriteBehindBuffer buffer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@example.com";
+        user = userService.createUser(new SignupForm(email, "지연", "password", "password", Gender.WOMAN));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void flushesBatchAndPublishesAfterInsert() throws InterruptedException {
+        buffer = buffer("none", 100, Duration.ofMillis(100));
+
+        ColorAnalysis first = buffer.submit(analysis(user.getId()));
+        ColorAnalysis second = buffer.submit(analysis(user.getId()));
+        assertNotNull(first.getId());
+        assertNotNull(first.getAnalyzedAt());
+        awaitFlushed(first, second);
+
+        assertEquals(2, savedCount());
+        assertEquals(2, registry.get("analysis.write-behind.flushed").counter().count());
+        assertEquals(2, events.size());
+        AnalysisCreatedEvent event = (AnalysisCreatedEvent) events.get(0);
+        assertEquals(user.getId(), event.userId());
+        assertEquals(Gender.WOMAN, event.gender());
+    }
+
+    @Test
+    void dropsRowsViolatingConstraintsWithoutPublishing() throws InterruptedException {
+        buffer = buffer("none", 100, Duration.ofMillis(200));
+
+        ColorAnalysis saved = buffer.submit(analysis(user.getId()));
+        ColorAnalysis orphan = buffer.submit(analysis(MISSING_USER_ID));
+        awaitFlushed(saved, orphan);
+
+        // 배치 저장이 실패하면 건별 저장으로 전환해 정상 건만 저장하고 이벤트 발행
+        assertEquals(1, savedCount());
+        assertEquals(1, events.size());
+        assertEquals(saved.getId(), ((AnalysisCreatedEvent) events.get(0)).analysis().id());
+    }
+
+    @Test
+    void rejectsWhenFullAndReportsLag() throws InterruptedException {
+        // 자리 1개: 저장 스레드가 첫 건을 모으는 동안(flush-interval) 자리가 나지 않는다
+        buffer = buffer("none", 1, Duration.ofSeconds(1));
+
+        ColorAnalysis first = buffer.submit(analysis(user.getId()));
+        assertThrows(AnalysisQueueFullException.class, () -> buffer.submit(analysis(user.getId())));
+        assertEquals(1, registry.get("analysis.write-behind.rejected").counter().count());
+        assertEquals(1, registry.get("analysis.write-behind.depth").gauge().value());
+        assertTrue(registry.get("analysis.write-behind.lag").gauge().value() > 0);
+
+        awaitFlushed(first);
+        assertEquals(0, registry.get("analysis.write-behind.depth").gauge().value());
+        assertEquals(0, registry.get("analysis.write-behind.lag").gauge().value());
+        assertNotNull(buffer.submit(analysis(user.getId())).getId());
+    }
+
+    @Test
+    void replaysJournalOnceOnStart() throws Exception {
+        long firstId = 900_000_001L;
+        long secondId = 900_000_002L;
+        writeJournal(firstId);
+        buffer = buffer("journal", 100, Duration.ofMillis(100));
+        buffer.shutdown();
+
+        // 저장 직후 세그먼트를 지우기 전에 종료된 경우: 이미 저장된 건은 다시 넣지 않는다
+        writeJournal(firstId, secondId);
+        buffer = buffer("journal", 100, Duration.ofMillis(100));
+
+        assertEquals(2, savedCount());
+        // 기록에는 성별이 없어 복구 건은 이벤트를 발행하지 않는다
+        assertTrue(events.isEmpty());
+    }
+
+    private AnalysisWriteBehindBuffer buffer(String durability, int capacity, Duration flushInterval) {
+        AnalysisWriteBehindBuffer created = new AnalysisWriteBehindBuffer(jdbcTemplate, transactionManager,
+                fileStorageService, events::add, entityManagerFactory, registry, true, durability,
+                journalDir.toString(), 1 << 20, capacity, 100, flushInterval, Duration.ofMillis(50), Duration.ofSeconds(10));
+        created.start();
+        return created;
+    }
+
+    private void writeJournal(long... ids) throws Exception {
+        AnalysisJournal journal = new AnalysisJournal(journalDir, 1 << 20, false);
+        journal.recover();
+        for (int i = 0; i < ids.length; i++) {
+            ColorAnalysis analysis = analysis(user.getId());
+            analysis.setId(ids[i]);
+            analysis.setAnalyzedAt(LocalDateTime.now());
+            journal.append(i + 1, analysis);
+        }
+        journal.close();
+    }
+
+    private void awaitFlushed(ColorAnalysis... analyses) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (Arrays.stream(analyses).anyMatch(analysis -> buffer.isPending(analysis.getId()))) {
+            assertTrue(System.nanoTime() < deadline, "저장 대기 시간 초과");
+            Thread.sleep(20);
+        }
+    }
+
+    private long savedCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM color_analysis WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private static ColorAnalysis analysis(Long userId) {
+        return ColorAnalysis.builder()
+                .user(User.builder().id(userId).gender(Gender.WOMAN).build())
+                .originalFileName("photo.jpg")
+                .storedFileName(UUID.randomUUID() + ".jpg")
+                .colorType(ColorAnalysis.ColorType.SPRING_WARM)
+                .description(ColorAnalysis.ColorType.SPRING_WARM.getDescription())
+                .dominantColors("[{\"hex\":\"#E0AC8A\",\"weight\":1.0}]")
+                .confidence(0.8f)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.persistence.EntityManager;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 분석 결과 10만 건 저장 처리량 (건/초)
+ *  - before: IDENTITY 방식과 같은 문장 패턴 (행마다 INSERT 1회 + 생성 키 조회, 배치 불가)
+ *  - after : 풀링 시퀀스 + hibernate.jdbc.batch_size=50 으로 ColorAnalysisService.bulkInsert
+ * before 는 Hibernate 오버헤드 없이 JDBC 로 직접 실행하므로 기존 방식 비용의 하한이다.
+ * 인메모리 H2 는 왕복 지연이 거의 없어 실제 MySQL 에서는 차이가 더 크다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "logging.level.org.hibernate=INFO",
+        "logging.level.org.springframework=INFO",
+        "debug=false"
+})
+class BulkInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void insertThroughput() throws SQLException {
+        User user = User.builder().email("bulk@example.com").name("bulk").password("x").gender(Gender.MAN).build();
+        entityManager.persist(user);
+        entityManager.flush();
+
+        double before = identityInserts(user.getId());
+
+        ColorAnalysisService service = new ColorAnalysisService(colorAnalysisRepository, null, null, null,
+                null, null, event -> {
+        }, entityManager, null, null);
+        List<ColorAnalysis> analyses = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            analyses.add(ColorAnalysis.builder()
+                    .user(user)
+                    .originalFileName("photo.jpg")
+                    .storedFileName(i + ".jpg")
+                    .colorType(ColorAnalysis.ColorType.values()[i % 4])
+                    .description("설명")
+                    .dominantColors("[{\"hex\":\"#E8C4A8\",\"weight\":0.5}]")
+                    .confidence(0.8f)
+                    .build());
+        }
+        long start = System.nanoTime();
+        service.bulkInsert(analyses);
+        double after = ROWS / ((System.nanoTime() - start) / 1e9);
+
+        assertEquals(ROWS, colorAnalysisRepository.countByUserId(user.getId()));
+        System.out.printf("before (identity, row-by-row): %,10.0f inserts/s%n", before);
+        System.out.printf("after  (sequence, batch 50)  : %,10.0f inserts/s%n", after);
+    }
+
+    private double identityInserts(Long userId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE color_analysis_identity ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "user_id BIGINT NOT NULL, "
+                    + "original_file_name VARCHAR(255) NOT NULL, "
+                    + "stored_file_name VARCHAR(255) NOT NULL, "
+                    + "color_type VARCHAR(20) NOT NULL, "
+                    + "description VARCHAR(1000), "
+                    + "dominant_colors VARCHAR(512), "
+                    + "confidence REAL, "
+                    + "analyzed_at TIMESTAMP(6))");
+
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO color_analysis_identity "
+                    + "(user_id, original_file_name, stored_file_name, color_type, description, dominant_colors, "
+                    + "confidence, analyzed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setLong(1, userId);
+                    insert.setString(2, "photo.jpg");
+                    insert.setString(3, i + ".jpg");
+                    insert.setString(4, ColorAnalysis.ColorType.values()[i % 4].name());
+                    insert.setString(5, "설명");
+                    insert.setString(6, "[{\"hex\":\"#E8C4A8\",\"weight\":0.5}]");
+                    insert.setFloat(7, 0.8f);
+                    insert.setTimestamp(8, Timestamp.valueOf(LocalDateTime.now()));
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+            double perSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+            statement.execute("DROP TABLE color_analysis_identity");
+            return perSecond;
+        }
+    }
+}
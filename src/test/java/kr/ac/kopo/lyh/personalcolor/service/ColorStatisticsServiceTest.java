@@ -0,0 +1,161 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorTypeStatistic;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorTypeStatisticRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 통계 카운터: 기동 시 요약 테이블 준비, 변경분만 더하는 반영, 다른 서버가 반영한 값 읽기
+ * (요약 테이블은 메모리 맵으로 대신한다)
+ */
+class ColorStatisticsServiceTest {
+
+    private final Map<ColorTypeStatistic.Key, Long> table = new ConcurrentHashMap<>();
+    private final ColorAnalysisRepository analysisRepository = mock(ColorAnalysisRepository.class);
+    private final ColorTypeStatisticRepository statisticRepository = mock(ColorTypeStatisticRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(statisticRepository.findAll()).then(invocation -> rows());
+        when(statisticRepository.findAllForUpdate()).then(invocation -> rows());
+        when(statisticRepository.save(any())).then(invocation -> put(invocation.getArgument(0)));
+        when(statisticRepository.saveAll(anyList())).then(invocation -> {
+            List<ColorTypeStatistic> saved = invocation.getArgument(0);
+            saved.forEach(this::put);
+            return saved;
+        });
+        when(statisticRepository.addCount(any(), any(), anyLong())).then(invocation -> {
+            ColorTypeStatistic.Key key = new ColorTypeStatistic.Key(invocation.getArgument(0), invocation.getArgument(1));
+            return table.computeIfPresent(key, (k, count) -> count + invocation.<Long>getArgument(2)) == null ? 0 : 1;
+        });
+        when(analysisRepository.countByColorTypeAndGender()).thenReturn(List.of(
+                new Object[]{ColorType.SPRING_WARM, Gender.WOMAN, 3L},
+                new Object[]{ColorType.WINTER_COOL, Gender.MAN, 2L}));
+    }
+
+    @Test
+    void seedsEmptyTableFromFullCount() {
+        ColorStatisticsService service = service(false);
+
+        assertEquals(8, table.size());
+        assertEquals(3L, table.get(key(ColorType.SPRING_WARM, Gender.WOMAN)));
+        ColorStatistics statistics = service.snapshot();
+        assertEquals(5, statistics.total());
+        assertEquals(2L, statistics.byGender().get(Gender.MAN).get(ColorType.WINTER_COOL));
+    }
+
+    @Test
+    void keepsExistingCountsWithoutRebuild() {
+        table.put(key(ColorType.SPRING_WARM, Gender.WOMAN), 10L);
+
+        ColorStatistics statistics = service(false).snapshot();
+
+        verify(analysisRepository, never()).countByColorTypeAndGender();
+        verify(statisticRepository, never()).saveAll(anyList());
+        // 빠진 조합만 0건으로 추가
+        assertEquals(8, table.size());
+        assertEquals(10L, table.get(key(ColorType.SPRING_WARM, Gender.WOMAN)));
+        assertEquals(10, statistics.total());
+    }
+
+    @Test
+    void rebuildOverwritesTableFromFullCount() {
+        table.put(key(ColorType.SPRING_WARM, Gender.WOMAN), 10L);
+
+        ColorStatistics statistics = service(true).snapshot();
+
+        assertEquals(3L, table.get(key(ColorType.SPRING_WARM, Gender.WOMAN)));
+        assertEquals(5, statistics.total());
+    }
+
+    @Test
+    void flushAddsDeltasOnTopOfOtherNodes() {
+        ColorStatisticsService service = service(false);
+
+        service.onCreated(created(ColorType.AUTUMN_WARM, Gender.WOMAN));
+        service.onCreated(created(ColorType.AUTUMN_WARM, Gender.WOMAN));
+        service.onDeleted(new AnalysisDeletedEvent(1L, 1L, Gender.WOMAN, ColorType.SPRING_WARM));
+        // 반영 전에도 이 서버의 변경분은 바로 보인다
+        assertEquals(6, service.snapshot().total());
+
+        // 그 사이 다른 서버가 반영한 변경분
+        table.merge(key(ColorType.AUTUMN_WARM, Gender.WOMAN), 5L, Long::sum);
+        service.flush();
+
+        verify(statisticRepository).addCount(ColorType.AUTUMN_WARM, Gender.WOMAN, 2L);
+        verify(statisticRepository).addCount(ColorType.SPRING_WARM, Gender.WOMAN, -1L);
+        assertEquals(7L, table.get(key(ColorType.AUTUMN_WARM, Gender.WOMAN)));
+        assertEquals(2L, table.get(key(ColorType.SPRING_WARM, Gender.WOMAN)));
+        assertEquals(11, service.snapshot().total());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        ColorStatisticsService service = service(false);
+        service.onCreated(created(ColorType.SUMMER_COOL, Gender.MAN));
+
+        doThrow(new IllegalStateException("DB 연결 실패"))
+                .when(statisticRepository).addCount(eq(ColorType.SUMMER_COOL), eq(Gender.MAN), anyLong());
+        service.flush();
+        assertEquals(0L, table.get(key(ColorType.SUMMER_COOL, Gender.MAN)));
+        assertEquals(6, service.snapshot().total());
+
+        doAnswer(invocation -> {
+            table.merge(key(ColorType.SUMMER_COOL, Gender.MAN), invocation.<Long>getArgument(2), Long::sum);
+            return 1;
+        }).when(statisticRepository).addCount(eq(ColorType.SUMMER_COOL), eq(Gender.MAN), anyLong());
+        service.flush();
+        assertEquals(1L, table.get(key(ColorType.SUMMER_COOL, Gender.MAN)));
+        assertEquals(6, service.snapshot().total());
+    }
+
+    private ColorStatisticsService service(boolean rebuildOnStartup) {
+        ColorStatisticsService service = new ColorStatisticsService(analysisRepository, statisticRepository,
+                mock(PlatformTransactionManager.class), rebuildOnStartup);
+        service.initialize();
+        return service;
+    }
+
+    private List<ColorTypeStatistic> rows() {
+        List<ColorTypeStatistic> rows = new ArrayList<>();
+        table.forEach((key, count) -> rows.add(new ColorTypeStatistic(key.getColorType(), key.getGender(), count)));
+        return rows;
+    }
+
+    private ColorTypeStatistic put(ColorTypeStatistic statistic) {
+        table.put(key(statistic.getColorType(), statistic.getGender()), statistic.getAnalysisCount());
+        return statistic;
+    }
+
+    private static ColorTypeStatistic.Key key(ColorType colorType, Gender gender) {
+        return new ColorTypeStatistic.Key(colorType, gender);
+    }
+
+    private static AnalysisCreatedEvent created(ColorType colorType, Gender gender) {
+        return new AnalysisCreatedEvent(1L, gender,
+                new AnalysisSummary(1L, colorType, colorType.getDescription(), 0.8f, "a.jpg", "[]", null));
+    }
+}
@@ -0,0 +1,181 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.repository.StoredBlobRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 업로드 저장 경로 비교: 기존 Files.copy 방식 vs 1회 읽기 + rename 방식
+ * 두 경로 모두 서블릿 컨테이너의 멀티파트 임시 파일 기록(spool)을 포함한다.
+ * 디스크 기록량은 /proc/self/io 의 wchar(write 시스템콜 바이트 수)로 측정한다.
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class FileIngestBenchmark {
+
+    private static final int ITERATIONS = 200;
+    private static final int[] SIZES = {256 * 1024, 2 * 1024 * 1024, 8 * 1024 * 1024};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareIngestPaths() throws Exception {
+        Path uploads = Files.createDirectories(tempDir.resolve("uploads"));
+        Path incoming = Files.createDirectories(uploads.resolve(".incoming"));
+
+        StoredBlobRepository repository = mock(StoredBlobRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        FileStorageService storage = new FileStorageService(uploads.toString(), DataSize.ofMegabytes(16),
+                repository, mock(ImageDerivativeService.class), mock(PlatformTransactionManager.class));
+
+        for (int size : SIZES) {
+            byte[] payload = samplePayload(size);
+
+            Result legacy = measure(payload, incoming, spool -> {
+                // 기존 방식: 임시 파일을 다시 읽어 업로드 디렉토리에 복사
+                Path target = uploads.resolve(UUID.randomUUID() + ".jpg");
+                try (InputStream in = Files.newInputStream(spool)) {
+                    Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.delete(spool);
+            });
+
+            Result current = measure(payload, incoming,
+                    spool -> storage.storeFile(new SpoolMultipartFile(spool, payload.length)));
+
+            System.out.printf("size=%5dKB legacy : %6.2f MB written/upload, p50=%6.2fms p99=%6.2fms%n",
+                    size / 1024, legacy.bytesPerUpload / 1e6, legacy.p50, legacy.p99);
+            System.out.printf("size=%5dKB current: %6.2f MB written/upload, p50=%6.2fms p99=%6.2fms%n",
+                    size / 1024, current.bytesPerUpload / 1e6, current.p50, current.p99);
+        }
+    }
+
+    private interface Ingest {
+        void store(Path spool) throws IOException;
+    }
+
+    private record Result(double bytesPerUpload, double p50, double p99) {
+    }
+
+    private Result measure(byte[] payload, Path incoming, Ingest ingest) throws IOException {
+        double[] latencies = new double[ITERATIONS];
+        long writtenBefore = writtenBytes();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            // 매번 다른 내용이 되도록 (중복 제거 경로를 타지 않게)
+            payload[16] = (byte) i;
+            payload[17] = (byte) (i >> 8);
+            payload[18] = (byte) System.nanoTime();
+
+            long start = System.nanoTime();
+            // 컨테이너의 멀티파트 spool 기록
+            Path spool = incoming.resolve("upload_" + UUID.randomUUID() + ".tmp");
+            Files.write(spool, payload);
+            ingest.store(spool);
+            latencies[i] = (System.nanoTime() - start) / 1e6;
+        }
+
+        long written = writtenBytes() - writtenBefore;
+        Arrays.sort(latencies);
+        return new Result((double) written / ITERATIONS,
+                latencies[ITERATIONS / 2],
+                latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1]);
+    }
+
+    private static long writtenBytes() throws IOException {
+        Path io = Path.of("/proc/self/io");
+        if (!Files.isReadable(io)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(io)) {
+            if (line.startsWith("wchar:")) {
+                return Long.parseLong(line.substring(6).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] samplePayload(int size) {
+        byte[] payload = new byte[size];
+        new Random(7).nextBytes(payload);
+        payload[0] = (byte) 0xFF;
+        payload[1] = (byte) 0xD8;
+        payload[2] = (byte) 0xFF;
+        return payload;
+    }
+
+    /**
+     * 디스크에 기록된 멀티파트(Tomcat 의 임계값 초과 파트)를 흉내
+     * transferTo 는 컨테이너처럼 임시 파일 이름만 변경한다.
+     */
+    private static final class SpoolMultipartFile implements MultipartFile {
+
+        private final Path spool;
+        private final long size;
+
+        SpoolMultipartFile(Path spool, long size) {
+            this.spool = spool;
+            this.size = size;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "portrait.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(spool);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(spool);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(spool, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SignupForm;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import kr.ac.kopo.lyh.personalcolor.repository.StoredBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 같은 내용 업로드 → 중복 재사용 → 분석 결과 삭제 시 참조 수·행·파일이 함께 정리되는지 확인 (인메모리 H2)
+ */
+@ActiveProfiles("h2")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:storage-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class FileStorageServiceTest {
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("storage-test");
+        registry.add("app.upload.dir", dir::toString);
+    }
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ColorAnalysisService colorAnalysisService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private ColorAnalysisRepository colorAnalysisRepository;
+
+    @Test
+    void deletingAnalysesReleasesSharedBlob() throws IOException {
+        User user = userService.createUser(new SignupForm("blob@example.com", "참조", "password", "password", Gender.WOMAN));
+        SessionUser sessionUser = SessionUser.from(user);
+        byte[] image = jpeg();
+
+        String first = fileStorageService.storeFile(new MockMultipartFile("file", "a.jpg", "image/jpeg", image));
+        String second = fileStorageService.storeFile(new MockMultipartFile("file", "b.jpg", "image/jpeg", image));
+        String contentHash = fileStorageService.contentHashOf(first);
+        Path path = fileStorageService.getFilePath(first);
+        assertEquals(first, second);
+        assertEquals(2, storedBlobRepository.findById(contentHash).orElseThrow().getRefCount());
+
+        List<ColorAnalysis> saved = colorAnalysisService.saveAnalyses(List.of(analysis(user, first), analysis(user, second)));
+
+        // 첫 번째 삭제: 행은 지워지고 파일은 남은 참조 때문에 유지
+        colorAnalysisService.deleteAnalysis(saved.get(0).getId(), sessionUser);
+        assertFalse(colorAnalysisRepository.existsById(saved.get(0).getId()));
+        assertEquals(1, storedBlobRepository.findById(contentHash).orElseThrow().getRefCount());
+        assertTrue(Files.exists(path));
+
+        // 마지막 참조 삭제: 기록과 파일 모두 제거
+        colorAnalysisService.deleteAnalysis(saved.get(1).getId(), sessionUser);
+        assertFalse(colorAnalysisRepository.existsById(saved.get(1).getId()));
+        assertTrue(storedBlobRepository.findById(contentHash).isEmpty());
+        assertFalse(Files.exists(path));
+    }
+
+    private static ColorAnalysis analysis(User user, String storedFileName) {
+        return ColorAnalysis.builder()
+                .user(user)
+                .originalFileName("photo.jpg")
+                .storedFileName(storedFileName)
+                .colorType(ColorAnalysis.ColorType.SPRING_WARM)
+                .description(ColorAnalysis.ColorType.SPRING_WARM.getDescription())
+                .dominantColors("[{\"hex\":\"#E0AC8A\",\"weight\":1.0}]")
+                .confidence(0.8f)
+                .build();
+    }
+
+    private static byte[] jpeg() throws IOException {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(224, 172, 138));
+        g.fillRect(0, 0, 64, 64);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
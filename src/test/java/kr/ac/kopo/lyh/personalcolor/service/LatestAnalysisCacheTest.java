@@ -0,0 +1,81 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import jakarta.persistence.EntityManager;
+import kr.ac.kopo.lyh.personalcolor.analysis.DominantColorsCodec;
+import kr.ac.kopo.lyh.personalcolor.analysis.ImageAnalyzer;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.SessionUser;
+import kr.ac.kopo.lyh.personalcolor.entity.ColorAnalysis.ColorType;
+import kr.ac.kopo.lyh.personalcolor.repository.AnalysisSummary;
+import kr.ac.kopo.lyh.personalcolor.repository.ColorAnalysisRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 최근 결과 캐시: 시각 순서 유지, DB 조회와 삭제가 겹쳤을 때 삭제된 결과로 다시 채우지 않는지 확인
+ */
+class LatestAnalysisCacheTest {
+
+    private static final SessionUser USER = new SessionUser(1L, "latest@example.com", "최근", Gender.WOMAN);
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final LatestAnalysisCache cache = new LatestAnalysisCache(true, 100);
+
+    @Test
+    void keepsNewerResult() {
+        cache.putIfNewer(USER.id(), summary(2L, NOW));
+        cache.putIfNewer(USER.id(), summary(1L, NOW.minusMinutes(1)));
+
+        assertEquals(2L, cache.get(USER.id()).id());
+    }
+
+    @Test
+    void missDoesNotRefillWithResultDeletedDuringRead() {
+        ColorAnalysisRepository repository = mock(ColorAnalysisRepository.class);
+        // DB 에서 읽은 직후(아직 캐시에 넣기 전) 다른 요청의 삭제가 커밋되어 evict
+        when(repository.findLatestSummaries(eq(USER.id()), any())).thenAnswer(invocation -> {
+            cache.onDeleted(new AnalysisDeletedEvent(USER.id(), 1L, USER.gender(), ColorType.SPRING_WARM));
+            return List.of(summary(1L, NOW));
+        });
+        ColorAnalysisService service = service(repository);
+
+        // 이번 조회는 읽은 값을 그대로 돌려주지만 캐시에는 남기지 않는다
+        assertEquals(1L, service.getLatestSummary(USER).id());
+        assertNull(cache.get(USER.id()));
+
+        // 삭제가 끼어들지 않은 조회는 캐시를 채운다
+        when(repository.findLatestSummaries(eq(USER.id()), any())).thenReturn(List.of(summary(2L, NOW)));
+        service.getLatestSummary(USER);
+        assertEquals(2L, cache.get(USER.id()).id());
+    }
+
+    @Test
+    void disabledCacheIgnoresWrites() {
+        LatestAnalysisCache disabled = new LatestAnalysisCache(false, 100);
+        disabled.fill(USER.id(), summary(1L, NOW), disabled.stamp());
+
+        assertNull(disabled.get(USER.id()));
+    }
+
+    private ColorAnalysisService service(ColorAnalysisRepository repository) {
+        return new ColorAnalysisService(repository, mock(FileStorageService.class), mock(ImageAnalyzer.class),
+                mock(DominantColorsCodec.class), mock(AnalysisResultCache.class), cache,
+                mock(ApplicationEventPublisher.class), mock(EntityManager.class),
+                mock(AnalysisWriteBehindBuffer.class), mock(UploadPipelineMetrics.class));
+    }
+
+    private static AnalysisSummary summary(Long id, LocalDateTime analyzedAt) {
+        return new AnalysisSummary(id, ColorType.SPRING_WARM, ColorType.SPRING_WARM.getDescription(), 0.8f,
+                id + ".jpg", "[]", analyzedAt);
+    }
+}
@@ -0,0 +1,115 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.exception.LoginThrottledException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로그인 폭주 중 업로드 처리 지연 비교
+ * Tomcat 기본 작업자 수(200)만큼의 스레드가 틀린 비밀번호로 계속 로그인하는 동안
+ * CPU 를 쓰는 업로드 요청(이미지 분석 대용)의 지연 시간을 측정한다.
+ *  - inline : 요청 스레드에서 바로 BCrypt 검증 (기존 방식)
+ *  - bounded: PasswordVerifier 작업자에서 검증, 포화 시 즉시 거절
+ * 실행: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class LoginFloodBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+    private static final int UPLOADS = 200;
+    private static final Duration FLOOD = Duration.ofSeconds(10);
+
+    private static volatile long sink;
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final String hash = encoder.encode("correct-password");
+
+    @Test
+    void uploadLatencyDuringLoginFlood() throws Exception {
+        System.out.printf("baseline: %s%n", run(null));
+
+        System.out.printf("inline  : %s%n", run(raw -> encoder.matches(raw, hash)));
+
+        PasswordVerifier verifier = new PasswordVerifier(encoder, new SimpleMeterRegistry(), 0, 32, Duration.ofSeconds(2));
+        try {
+            System.out.printf("bounded : %s%n", run(raw -> verifier.matches(raw, hash)));
+        } finally {
+            verifier.shutdown();
+        }
+    }
+
+    private interface Login {
+        boolean attempt(String rawPassword);
+    }
+
+    private String run(Login login) throws Exception {
+        ExecutorService attackers = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong attempts = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        if (login != null) {
+            for (int i = 0; i < REQUEST_THREADS; i++) {
+                attackers.execute(() -> {
+                    while (running.get()) {
+                        try {
+                            login.attempt("wrong-password");
+                            attempts.incrementAndGet();
+                        } catch (LoginThrottledException e) {
+                            rejected.incrementAndGet();
+                            // 클라이언트가 거절 응답을 받고 다시 요청하는 간격
+                            sleep(5);
+                        }
+                    }
+                });
+            }
+            sleep(500);
+        }
+
+        List<Double> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + FLOOD.toNanos();
+        for (int i = 0; i < UPLOADS && System.nanoTime() < deadline; i++) {
+            long start = System.nanoTime();
+            sink += simulatedUpload();
+            latencies.add((System.nanoTime() - start) / 1e6);
+        }
+
+        running.set(false);
+        attackers.shutdown();
+        attackers.awaitTermination(30, TimeUnit.SECONDS);
+
+        double[] sorted = latencies.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("uploads=%d p50=%.1fms p99=%.1fms max=%.1fms, logins=%d rejected=%d",
+                sorted.length, sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)],
+                sorted[sorted.length - 1], attempts.get(), rejected.get());
+    }
+
+    // 이미지 분석 한 건 분량의 CPU 작업 (약 수 ms)
+    private static long simulatedUpload() {
+        long acc = 0;
+        for (int i = 0; i < 2_000_000; i++) {
+            acc += (acc ^ i) * 31 + (i >>> 3);
+        }
+        return acc;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
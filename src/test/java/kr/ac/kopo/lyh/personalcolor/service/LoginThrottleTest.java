@@ -0,0 +1,58 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), 1024,
+            3, Duration.ofSeconds(20), 10, Duration.ofSeconds(1), clock::get);
+
+    @Test
+    void limitsAttemptsPerEmailAndRefills() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("Victim@Example.com", "10.0.0." + i);
+        }
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("victim@example.com ", "10.0.0.9"));
+        assertEquals(20, e.getRetryAfterSeconds());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertDoesNotThrow(() -> throttle.acquire("victim@example.com", "10.0.0.9"));
+    }
+
+    @Test
+    void limitsAttemptsPerIp() {
+        for (int i = 0; i < 10; i++) {
+            throttle.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("other@example.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.acquire("other@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void successfulLoginReturnsEmailToken() {
+        // 이메일 한도(3회)를 넘겨도 성공할 때마다 돌려받으므로 거절되지 않는다
+        for (int i = 0; i < 10; i++) {
+            String ip = "10.0.1." + i;
+            assertDoesNotThrow(() -> throttle.acquire("regular@example.com", ip));
+            throttle.onSuccess("regular@example.com");
+        }
+
+        // 실패만 이어지면 남은 3회 뒤 거절
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("regular@example.com", "10.0.2." + i);
+        }
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("regular@example.com", "10.0.2.9"));
+    }
+}
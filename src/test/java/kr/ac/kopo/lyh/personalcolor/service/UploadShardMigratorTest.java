@@ -0,0 +1,136 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import kr.ac.kopo.lyh.personalcolor.repository.StoredBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 업로드 샤드 배치: 경로 규칙, 평면 배치 파일 이전, 매니페스트 재생(불완전한 마지막 기록, 압축)
+ */
+class UploadShardMigratorTest {
+
+    private static final String HASH_NAME = "abcd" + "0".repeat(60) + ".jpg";
+    private static final String LEGACY_NAME = "photo.png";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shardsByHashPrefixAndKeepsDerivativesNextToOriginal() {
+        assertEquals("ab/cd/" + HASH_NAME, UploadShardLayout.relativePath(HASH_NAME));
+
+        Path original = UploadShardLayout.resolve(root, LEGACY_NAME);
+        Path derivative = UploadShardLayout.resolve(root, "photo_128.jpg");
+        assertEquals(original.getParent(), derivative.getParent());
+        assertEquals(root, original.getParent().getParent().getParent());
+
+        assertFalse(UploadShardLayout.isPlainFileName(".manifest"));
+        assertFalse(UploadShardLayout.isPlainFileName("../" + HASH_NAME));
+        assertTrue(UploadShardLayout.isPlainFileName(HASH_NAME));
+    }
+
+    @Test
+    void migratesFlatFilesAndKeepsThemReadable() throws IOException {
+        byte[] content = {1, 2, 3};
+        Files.write(root.resolve(HASH_NAME), content);
+        Files.write(root.resolve(LEGACY_NAME), content);
+        // 이미 샤드에 같은 파일이 있으면 평면 사본만 정리
+        Path alreadySharded = UploadShardLayout.resolve(root, "ffff.jpg");
+        Files.createDirectories(alreadySharded.getParent());
+        Files.write(alreadySharded, content);
+        Files.write(root.resolve("ffff.jpg"), content);
+        FileStorageService storage = storage();
+
+        // 이전 전에는 평면 경로에서 찾는다
+        assertEquals(root.resolve(HASH_NAME), storage.getExistingFilePath(HASH_NAME));
+
+        assertEquals(3, new UploadShardMigrator(storage, true).migrate());
+
+        for (String name : List.of(HASH_NAME, LEGACY_NAME, "ffff.jpg")) {
+            Path path = storage.getExistingFilePath(name);
+            assertEquals(UploadShardLayout.resolve(root, name), path);
+            assertArrayEquals(content, Files.readAllBytes(path));
+        }
+        try (Stream<Path> entries = Files.list(root)) {
+            assertEquals(List.of(), entries.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(UploadShardLayout::isPlainFileName)
+                    .toList());
+        }
+        // 다시 실행해도 옮길 파일 없음
+        assertEquals(0, new UploadShardMigrator(storage, true).migrate());
+    }
+
+    @Test
+    void reloadsManifestLog() throws IOException {
+        Path file = root.resolve(".manifest");
+        UploadManifest manifest = new UploadManifest(file);
+        assertFalse(manifest.load());
+        manifest.rebuild(List.of("a.jpg"));
+        manifest.add("b.jpg");
+        manifest.add("c.jpg");
+        manifest.remove("a.jpg");
+        manifest.close();
+
+        UploadManifest reloaded = new UploadManifest(file);
+        assertTrue(reloaded.load());
+        assertEquals(2, reloaded.size());
+        assertTrue(reloaded.contains("b.jpg"));
+        assertFalse(reloaded.contains("a.jpg"));
+        reloaded.close();
+    }
+
+    @Test
+    void dropsTornLastRecordAndRewritesLog() throws IOException {
+        Path file = root.resolve(".manifest");
+        // "+c.jpg" 를 쓰던 중 종료
+        Files.writeString(file, "+a.jpg\n+b.jpg\n+c.j", StandardCharsets.UTF_8);
+
+        UploadManifest manifest = new UploadManifest(file);
+        assertTrue(manifest.load());
+        assertEquals(2, manifest.size());
+        assertFalse(manifest.contains("c.j"));
+        manifest.add("d.jpg");
+        manifest.close();
+
+        // 불완전한 줄에 이어 쓰지 않았으므로 다음 기록도 온전히 재생된다
+        UploadManifest reloaded = new UploadManifest(file);
+        assertTrue(reloaded.load());
+        assertEquals(3, reloaded.size());
+        assertTrue(reloaded.contains("d.jpg"));
+        reloaded.close();
+    }
+
+    @Test
+    void compactsLogWithManyRemovalsOnLoad() throws IOException {
+        Path file = root.resolve(".manifest");
+        Files.writeString(file, "+a.jpg\n+b.jpg\n+c.jpg\n-a.jpg\n-b.jpg\n", StandardCharsets.UTF_8);
+
+        UploadManifest manifest = new UploadManifest(file);
+        assertTrue(manifest.load());
+        manifest.close();
+
+        assertEquals(List.of("+c.jpg"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(root.resolve(".manifest.tmp")));
+    }
+
+    private FileStorageService storage() {
+        return new FileStorageService(root.toString(), DataSize.ofMegabytes(10), mock(StoredBlobRepository.class),
+                mock(ImageDerivativeService.class), mock(PlatformTransactionManager.class));
+    }
+}
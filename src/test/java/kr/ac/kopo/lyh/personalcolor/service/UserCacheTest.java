@@ -0,0 +1,56 @@
+package kr.ac.kopo.lyh.personalcolor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.ac.kopo.lyh.personalcolor.controller.dto.Gender;
+import kr.ac.kopo.lyh.personalcolor.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserCache cache = new UserCache(registry, 2, Duration.ofMinutes(5), clock::get);
+
+    @Test
+    void returnsCopyUntilExpired() {
+        cache.put("a@example.com", user(1L, "a@example.com"));
+
+        User cached = cache.get("a@example.com");
+        cached.setPassword("changed");
+        assertEquals("hash", cache.get("a@example.com").getPassword());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertNull(cache.get("a@example.com"));
+        assertEquals(2, registry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndOnChange() {
+        cache.put("a@example.com", user(1L, "a@example.com"));
+        cache.put("b@example.com", user(2L, "b@example.com"));
+        cache.get("a@example.com");
+        cache.put("c@example.com", user(3L, "c@example.com"));
+
+        assertNull(cache.get("b@example.com"));
+        assertEquals(1, registry.get("cache.evictions").tag("cause", "size").counter().count());
+
+        // 대소문자만 다른 이메일로 캐시된 항목도 사용자 ID 로 제거
+        cache.put("A@Example.com", user(1L, "a@example.com"));
+        cache.onChanged(new UserChangedEvent(1L, "a@example.com"));
+        assertNull(cache.get("A@Example.com"));
+        assertNotNull(cache.get("c@example.com"));
+    }
+
+    private static User user(Long id, String email) {
+        return User.builder().id(id).email(email).name("name").password("hash").gender(Gender.WOMAN).build();
+    }
+}